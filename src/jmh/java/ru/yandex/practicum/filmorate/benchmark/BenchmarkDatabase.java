@@ -0,0 +1,103 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@State(Scope.Benchmark)
+public class BenchmarkDatabase {
+    private static final int BATCH_SIZE = 10_000;
+
+    private static final String INSERT_FILMS =
+            "INSERT INTO films (film_id, film_name, description, duration, release_date, rating_id) " +
+                    "SELECT X, CONCAT('film ', X), CONCAT('description ', X), 60 + MOD(X, 120), " +
+                    "DATEADD(DAY, -MOD(X, 36500), DATE '2024-01-01'), 1 + MOD(X, 5) " +
+                    "FROM SYSTEM_RANGE(1, ?)";
+
+    private static final String INSERT_FILM_GENRES =
+            "INSERT INTO film_genres (film_id, genre_id) " +
+                    "SELECT X, 1 + MOD(X, 6) FROM SYSTEM_RANGE(1, ?) " +
+                    "UNION ALL " +
+                    "SELECT X, 1 + MOD(X + 3, 6) FROM SYSTEM_RANGE(1, ?) WHERE MOD(X, 2) = 0";
+
+    private static final String INSERT_USERS =
+            "INSERT INTO users (user_id, user_name, login, email, birthday) " +
+                    "SELECT X, CONCAT('user ', X), CONCAT('login', X), CONCAT('user', X, '@mail.com'), " +
+                    "DATEADD(DAY, -MOD(X, 18250), DATE '2006-01-01') " +
+                    "FROM SYSTEM_RANGE(1, ?)";
+
+    private static final String INSERT_LIKE = "INSERT INTO likes (film_id, user_id) VALUES (?, ?)";
+
+    private static final String INSERT_FRIEND = "INSERT INTO friends (user_id, friend_id, status) VALUES (?, ?, FALSE)";
+
+    private static final String UPDATE_LIKE_COUNTS =
+            "UPDATE films f SET like_count = (SELECT COUNT(*) FROM likes l WHERE l.film_id = f.film_id)";
+
+    @Param({"1000", "100000", "1000000"})
+    public int films;
+
+    @Param({"0.8", "1.2"})
+    public double skew;
+
+    private EmbeddedDatabase dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .build();
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update(INSERT_FILMS, films);
+        jdbcTemplate.update(INSERT_FILM_GENRES, films, films);
+        jdbcTemplate.update(INSERT_USERS, Workload.users(films));
+
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        Workload.likes(films, skew, (filmId, userId) -> add(INSERT_LIKE, batch, filmId, userId));
+        flush(INSERT_LIKE, batch);
+        jdbcTemplate.update(UPDATE_LIKE_COUNTS);
+
+        Workload.friendships(films, skew, (friendId, userId) -> add(INSERT_FRIEND, batch, userId, friendId));
+        flush(INSERT_FRIEND, batch);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.shutdown();
+    }
+
+    public JdbcTemplate getJdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    public int getUsers() {
+        return Workload.users(films);
+    }
+
+    private void add(String sql, List<Object[]> batch, long first, long second) {
+        batch.add(new Object[]{first, second});
+        if (batch.size() == BATCH_SIZE) {
+            flush(sql, batch);
+        }
+    }
+
+    private void flush(String sql, List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+            batch.clear();
+        }
+    }
+}
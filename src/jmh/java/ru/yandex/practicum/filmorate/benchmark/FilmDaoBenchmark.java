@@ -0,0 +1,51 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.dao.film.FilmAssembler;
+import ru.yandex.practicum.filmorate.storage.dao.film.FilmDaoImpl;
+
+import java.util.Collection;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class FilmDaoBenchmark {
+    @Param({"10", "100"})
+    public int count;
+
+    private FilmDaoImpl filmDao;
+    private Zipf popularity;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkDatabase database) {
+        filmDao = new FilmDaoImpl(database.getJdbcTemplate(), new FilmAssembler(database.getJdbcTemplate()));
+        popularity = new Zipf(database.films, database.skew);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Collection<Film> getFilms() {
+        return filmDao.getFilms();
+    }
+
+    @Benchmark
+    public Collection<Film> getPopular() {
+        return filmDao.getPopular(count);
+    }
+
+    @Benchmark
+    public Film getFilmById(Sampler sampler) {
+        return filmDao.getFilmById(popularity.sample(sampler.random));
+    }
+
+    @State(Scope.Thread)
+    public static class Sampler {
+        final Random random = new Random(42);
+    }
+}
@@ -0,0 +1,53 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.dao.film.FilmAssembler;
+import ru.yandex.practicum.filmorate.storage.dao.film.FilmDaoImpl;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class FilmLoadingBenchmark {
+    private static final String CARTESIAN_FIND_ALL_FILM =
+            "SELECT f.film_id, f.film_name, f.description, f.release_date, f.duration, " +
+                    "r.rating_id, r.rating_name, g.genre_id, g.genre_name, l.user_id " +
+                    "FROM films f " +
+                    "LEFT JOIN rating_mpa r ON f.rating_id = r.rating_id " +
+                    "LEFT JOIN film_genres fg ON f.film_id = fg.film_id " +
+                    "LEFT JOIN genres g ON fg.genre_id = g.genre_id " +
+                    "LEFT JOIN likes l ON f.film_id = l.film_id " +
+                    "ORDER BY f.film_id";
+
+    private JdbcTemplate jdbcTemplate;
+    private FilmDaoImpl filmDao;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkDatabase database) {
+        jdbcTemplate = database.getJdbcTemplate();
+        filmDao = new FilmDaoImpl(jdbcTemplate, new FilmAssembler(jdbcTemplate));
+    }
+
+    @Benchmark
+    public void cartesianJoin(Blackhole blackhole) {
+        jdbcTemplate.query(CARTESIAN_FIND_ALL_FILM, rs -> {
+            blackhole.consume(rs.getString("film_name"));
+            blackhole.consume(rs.getString("description"));
+            blackhole.consume(rs.getString("genre_name"));
+            blackhole.consume(rs.getLong("user_id"));
+        });
+    }
+
+    @Benchmark
+    public Collection<Film> batchedAssembler() {
+        return filmDao.getFilms();
+    }
+}
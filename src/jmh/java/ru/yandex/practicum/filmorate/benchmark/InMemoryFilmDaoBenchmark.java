@@ -0,0 +1,49 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.RatingMpa;
+import ru.yandex.practicum.filmorate.storage.memory.InMemoryFilmDao;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class InMemoryFilmDaoBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int films;
+
+    @Param({"0.8", "1.2"})
+    public double skew;
+
+    @Param({"10", "100"})
+    public int count;
+
+    private InMemoryFilmDao filmDao;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        filmDao = new InMemoryFilmDao();
+        for (int i = 1; i <= films; i++) {
+            filmDao.create(Film.builder()
+                    .name("film " + i)
+                    .description("description " + i)
+                    .releaseDate(LocalDate.of(2024, 1, 1).minusDays(i % 36500))
+                    .duration(60 + i % 120)
+                    .ratingMpa(RatingMpa.builder().id(1L + i % 5).build())
+                    .build());
+        }
+        Workload.likes(films, skew, (filmId, userId) -> filmDao.addLikes(filmId, userId));
+    }
+
+    @Benchmark
+    public Collection<Film> getPopular() {
+        return filmDao.getPopular(count);
+    }
+}
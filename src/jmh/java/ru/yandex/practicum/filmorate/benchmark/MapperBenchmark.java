@@ -0,0 +1,78 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.h2.tools.SimpleResultSet;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.yandex.practicum.filmorate.storage.mapper.FilmMapper;
+import ru.yandex.practicum.filmorate.storage.mapper.UserMapper;
+
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import static ru.yandex.practicum.filmorate.storage.constants.FilmDbConstants.*;
+import static ru.yandex.practicum.filmorate.storage.constants.RatingMpaConstants.RATING_ID;
+import static ru.yandex.practicum.filmorate.storage.constants.RatingMpaConstants.RATING_NAME;
+import static ru.yandex.practicum.filmorate.storage.constants.UserDbConstants.*;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MapperBenchmark {
+    @Param({"1000"})
+    public int rows;
+
+    private final FilmMapper filmMapper = new FilmMapper();
+    private final UserMapper userMapper = new UserMapper();
+    private SimpleResultSet films;
+    private SimpleResultSet users;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        films = new SimpleResultSet();
+        films.setAutoClose(false);
+        films.addColumn(FILM_ID, Types.BIGINT, 19, 0);
+        films.addColumn(FILM_NAME, Types.VARCHAR, 255, 0);
+        films.addColumn(FILM_DESCRIPTION, Types.VARCHAR, 200, 0);
+        films.addColumn(FILM_RELEASE_DATE, Types.DATE, 10, 0);
+        films.addColumn(FILM_DURATION, Types.INTEGER, 10, 0);
+        films.addColumn(FILM_LIKE_COUNT, Types.BIGINT, 19, 0);
+        films.addColumn(RATING_ID, Types.BIGINT, 19, 0);
+        films.addColumn(RATING_NAME, Types.VARCHAR, 255, 0);
+
+        users = new SimpleResultSet();
+        users.setAutoClose(false);
+        users.addColumn(USER_ID, Types.BIGINT, 19, 0);
+        users.addColumn(USER_NAME, Types.VARCHAR, 255, 0);
+        users.addColumn(USER_LOGIN, Types.VARCHAR, 255, 0);
+        users.addColumn(USER_EMAIL, Types.VARCHAR, 255, 0);
+        users.addColumn(USER_BIRTHDAY, Types.DATE, 10, 0);
+
+        Date date = Date.valueOf(LocalDate.of(2000, 1, 1));
+        for (long i = 1; i <= rows; i++) {
+            films.addRow(i, "film " + i, "description " + i, date, 100, i % 100, 1 + i % 5, "G");
+            users.addRow(i, "user " + i, "login" + i, "user" + i + "@mail.com", date);
+        }
+    }
+
+    @Benchmark
+    public void filmMapper(Blackhole blackhole) throws SQLException {
+        films.beforeFirst();
+        for (int row = 0; films.next(); row++) {
+            blackhole.consume(filmMapper.mapRow(films, row));
+        }
+    }
+
+    @Benchmark
+    public void userMapper(Blackhole blackhole) throws SQLException {
+        users.beforeFirst();
+        for (int row = 0; users.next(); row++) {
+            blackhole.consume(userMapper.mapRow(users, row));
+        }
+    }
+}
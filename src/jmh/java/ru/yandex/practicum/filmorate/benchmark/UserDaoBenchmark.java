@@ -0,0 +1,42 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.dao.user.UserDaoImpl;
+
+import java.util.Collection;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class UserDaoBenchmark {
+    private UserDaoImpl userDao;
+    private int users;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkDatabase database) {
+        userDao = new UserDaoImpl(database.getJdbcTemplate());
+        users = database.getUsers();
+    }
+
+    @Benchmark
+    public Collection<User> getFriends(Sampler sampler) {
+        return userDao.getFriends(1 + (long) sampler.random.nextInt(users));
+    }
+
+    @Benchmark
+    public Collection<User> getCommonFriends(Sampler sampler) {
+        return userDao.getCommonFriends(1 + (long) sampler.random.nextInt(users),
+                1 + (long) sampler.random.nextInt(users));
+    }
+
+    @State(Scope.Thread)
+    public static class Sampler {
+        final Random random = new Random(42);
+    }
+}
@@ -0,0 +1,51 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+final class Workload {
+    static final int LIKES_PER_USER = 20;
+    static final int FRIENDS_PER_USER = 20;
+
+    private static final long SEED = 42;
+    private static final int MIN_USERS = 1_000;
+    private static final int FILMS_PER_USER = 10;
+
+    private Workload() {
+    }
+
+    static int users(int films) {
+        return Math.max(MIN_USERS, films / FILMS_PER_USER);
+    }
+
+    static void likes(int films, double skew, PairConsumer consumer) {
+        pairs(users(films), films, LIKES_PER_USER, skew, false, consumer);
+    }
+
+    static void friendships(int films, double skew, PairConsumer consumer) {
+        int users = users(films);
+        pairs(users, users, FRIENDS_PER_USER, skew, true, consumer);
+    }
+
+    private static void pairs(int owners, int targets, int perOwner, double skew, boolean skipSelf,
+                              PairConsumer consumer) {
+        Zipf popularity = new Zipf(targets, skew);
+        Random random = new Random(SEED);
+        Set<Long> seen = new HashSet<>();
+
+        for (long owner = 1; owner <= owners; owner++) {
+            seen.clear();
+            for (int i = 0; i < perOwner; i++) {
+                long target = popularity.sample(random);
+                if ((!skipSelf || target != owner) && seen.add(target)) {
+                    consumer.accept(target, owner);
+                }
+            }
+        }
+    }
+
+    interface PairConsumer {
+        void accept(long target, long owner);
+    }
+}
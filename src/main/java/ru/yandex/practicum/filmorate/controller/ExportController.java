@@ -0,0 +1,43 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.yandex.practicum.filmorate.model.ExportFormat;
+import ru.yandex.practicum.filmorate.service.CatalogExportService;
+
+@RestController
+public class ExportController {
+    private final CatalogExportService catalogExportService;
+
+    @Autowired
+    public ExportController(CatalogExportService catalogExportService) {
+        this.catalogExportService = catalogExportService;
+    }
+
+    @GetMapping("/films/export")
+    public ResponseEntity<StreamingResponseBody> exportFilms(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = catalogExportService.format(format);
+        return response("films", exportFormat, out -> catalogExportService.exportFilms(exportFormat, out));
+    }
+
+    @GetMapping("/users/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = catalogExportService.format(format);
+        return response("users", exportFormat, out -> catalogExportService.exportUsers(exportFormat, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> response(String name, ExportFormat format,
+                                                           StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=" + name + "." + format.getExtension())
+                .body(body);
+    }
+}
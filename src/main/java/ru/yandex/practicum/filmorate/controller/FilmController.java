@@ -1,33 +1,61 @@
 package ru.yandex.practicum.filmorate.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 
 import jakarta.validation.Valid;
 import org.springframework.web.bind.annotation.*;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.ImportReport;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.service.FilmImportService;
 import ru.yandex.practicum.filmorate.service.FilmService;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collection;
 
 @RestController
 @RequestMapping("/films")
 public class FilmController {
     private final FilmService filmService;
+    private final FilmImportService filmImportService;
+    private final boolean unpagedList;
 
     @Autowired
-    public FilmController(FilmService filmService) {
+    public FilmController(FilmService filmService,
+                          FilmImportService filmImportService,
+                          @Value("${filmorate.films.unpaged:false}") boolean unpagedList) {
         this.filmService = filmService;
+        this.filmImportService = filmImportService;
+        this.unpagedList = unpagedList;
     }
 
     @GetMapping
-    public Collection<Film> findAll() {
-       return filmService.getFilms();
+    public ResponseEntity<Collection<Film>> findAll(@RequestParam(required = false) Long after,
+                                                    @RequestParam(required = false) Integer limit) {
+        if (unpagedList && after == null && limit == null) {
+            return ResponseEntity.ok(filmService.getFilms());
+        }
+        return PageResponses.of(filmService.getFilms(after, limit));
     }
 
     @GetMapping("/popular")
-    public Collection<Film> getPopular(@RequestParam(defaultValue = "10") Integer count) {
-        return filmService.getPopular(count);
+    public Collection<Film> getPopular(@RequestParam(defaultValue = "10") Integer count,
+                                       @RequestParam(required = false) Long genreId,
+                                       @RequestParam(required = false) Integer year,
+                                       @RequestParam(required = false) Long mpaId) {
+        return filmService.getPopular(count, genreId, year, mpaId);
+    }
+
+    @GetMapping("/{id}/likes")
+    public ResponseEntity<Collection<Like>> getLikes(@PathVariable Long id,
+                                                     @RequestParam(required = false) Long after,
+                                                     @RequestParam(required = false) Integer limit) {
+        return PageResponses.of(filmService.getLikes(id, after, limit));
     }
 
     @GetMapping("/{id}")
@@ -40,11 +68,21 @@ public class FilmController {
         return filmService.create(film);
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ImportReport importFilms(InputStream body) throws IOException {
+        return filmImportService.importFilms(body);
+    }
+
     @PutMapping
     public Film update(@Valid @RequestBody Film newFilm) {
       return filmService.update(newFilm);
     }
 
+    @PatchMapping("/{id}")
+    public Film patch(@PathVariable Long id, @RequestBody Film changes) {
+        return filmService.patch(id, changes);
+    }
+
     @DeleteMapping("/{id}")
     public Film delete(@PathVariable Long id) {
        return filmService.delete(id);
@@ -0,0 +1,32 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.SimilarFilm;
+import ru.yandex.practicum.filmorate.service.FilmRecommendationService;
+
+import java.util.Collection;
+import java.util.List;
+
+@RestController
+@RequestMapping("/films")
+public class FilmRecommendationController {
+    private final FilmRecommendationService filmRecommendationService;
+
+    @Autowired
+    public FilmRecommendationController(FilmRecommendationService filmRecommendationService) {
+        this.filmRecommendationService = filmRecommendationService;
+    }
+
+    @GetMapping("/{id}/recommendations")
+    public Collection<Film> getRecommendations(@PathVariable Long id,
+                                               @RequestParam(required = false) Integer limit) {
+        return filmRecommendationService.getRecommendations(id, limit);
+    }
+
+    @GetMapping("/{id}/similar")
+    public List<SimilarFilm> getSimilar(@PathVariable Long id, @RequestParam(required = false) Integer limit) {
+        return filmRecommendationService.getSimilar(id, limit);
+    }
+}
@@ -0,0 +1,31 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmTitle;
+import ru.yandex.practicum.filmorate.service.FilmSearchService;
+
+import java.util.Collection;
+import java.util.List;
+
+@RestController
+@RequestMapping("/films")
+public class FilmSearchController {
+    private final FilmSearchService filmSearchService;
+
+    @Autowired
+    public FilmSearchController(FilmSearchService filmSearchService) {
+        this.filmSearchService = filmSearchService;
+    }
+
+    @GetMapping("/search")
+    public Collection<Film> search(@RequestParam String q, @RequestParam(required = false) Integer limit) {
+        return filmSearchService.search(q, limit);
+    }
+
+    @GetMapping("/autocomplete")
+    public List<FilmTitle> autocomplete(@RequestParam String prefix, @RequestParam(required = false) Integer limit) {
+        return filmSearchService.autocomplete(prefix, limit);
+    }
+}
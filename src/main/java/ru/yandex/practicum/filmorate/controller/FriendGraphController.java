@@ -0,0 +1,33 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+import ru.yandex.practicum.filmorate.model.FriendPath;
+import ru.yandex.practicum.filmorate.model.FriendSuggestion;
+import ru.yandex.practicum.filmorate.service.FriendGraphService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/users")
+public class FriendGraphController {
+    private final FriendGraphService friendGraphService;
+
+    @Autowired
+    public FriendGraphController(FriendGraphService friendGraphService) {
+        this.friendGraphService = friendGraphService;
+    }
+
+    @GetMapping("/{id}/friends/suggestions")
+    public List<FriendSuggestion> getSuggestions(@PathVariable Long id,
+                                                 @RequestParam(required = false) Integer limit) {
+        return friendGraphService.getSuggestions(id, limit);
+    }
+
+    @GetMapping("/{fromUserId}/path/{toUserId}")
+    public FriendPath findPath(@PathVariable Long fromUserId,
+                               @PathVariable Long toUserId,
+                               @RequestParam(required = false) Integer maxDepth) {
+        return friendGraphService.findPath(fromUserId, toUserId, maxDepth);
+    }
+}
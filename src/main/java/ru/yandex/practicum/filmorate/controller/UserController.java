@@ -2,6 +2,8 @@ package ru.yandex.practicum.filmorate.controller;
 
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.yandex.practicum.filmorate.model.User;
 import ru.yandex.practicum.filmorate.service.UserService;
@@ -12,25 +14,42 @@ import java.util.Collection;
 @RequestMapping("/users")
 public class UserController {
     private final UserService userService;
+    private final boolean unpagedList;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, @Value("${filmorate.users.unpaged:false}") boolean unpagedList) {
         this.userService = userService;
+        this.unpagedList = unpagedList;
     }
 
     @GetMapping
-    public Collection<User> findAll() {
-        return  userService.getUsers();
+    public ResponseEntity<Collection<User>> findAll(@RequestParam(required = false) Long after,
+                                                    @RequestParam(required = false) Integer limit) {
+        if (unpagedList && after == null && limit == null) {
+            return ResponseEntity.ok(userService.getUsers());
+        }
+        return PageResponses.of(userService.getUsers(after, limit));
     }
 
     @GetMapping("/{id}/friends")
-    public Collection<User> getFriends(@PathVariable Long id) {
-        return userService.getFriends(id);
+    public ResponseEntity<Collection<User>> getFriends(@PathVariable Long id,
+                                                       @RequestParam(required = false) Long after,
+                                                       @RequestParam(required = false) Integer limit) {
+        if (unpagedList && after == null && limit == null) {
+            return ResponseEntity.ok(userService.getFriends(id));
+        }
+        return PageResponses.of(userService.getFriends(id, after, limit));
     }
 
     @GetMapping("/{firstUserId}/friends/common/{secondUserId}")
-    public Collection<User> getCommonFriends(@PathVariable Long firstUserId, @PathVariable Long secondUserId) {
-        return userService.getCommonFriends(firstUserId, secondUserId);
+    public ResponseEntity<Collection<User>> getCommonFriends(@PathVariable Long firstUserId,
+                                                             @PathVariable Long secondUserId,
+                                                             @RequestParam(required = false) Long after,
+                                                             @RequestParam(required = false) Integer limit) {
+        if (unpagedList && after == null && limit == null) {
+            return ResponseEntity.ok(userService.getCommonFriends(firstUserId, secondUserId));
+        }
+        return PageResponses.of(userService.getCommonFriends(firstUserId, secondUserId, after, limit));
     }
 
     @GetMapping("/{id}")
@@ -0,0 +1,84 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.service.*;
+import ru.yandex.practicum.filmorate.storage.dao.film.CachingFilmDao;
+
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class FilmorateMeterBinder implements MeterBinder {
+    private final CachingFilmDao cachingFilmDao;
+    private final PopularityLeaderboard popularityLeaderboard;
+    private final LikeWriteBehind likeWriteBehind;
+    private final FilmCoOccurrenceRecommender coOccurrenceRecommender;
+    private final FilmSimilarityIndex filmSimilarityIndex;
+    private final FilmSearchIndex filmSearchIndex;
+    private final FriendGraphIndex friendGraphIndex;
+
+    @Autowired
+    public FilmorateMeterBinder(CachingFilmDao cachingFilmDao,
+                                PopularityLeaderboard popularityLeaderboard,
+                                LikeWriteBehind likeWriteBehind,
+                                FilmCoOccurrenceRecommender coOccurrenceRecommender,
+                                FilmSimilarityIndex filmSimilarityIndex,
+                                FilmSearchIndex filmSearchIndex,
+                                FriendGraphIndex friendGraphIndex) {
+        this.cachingFilmDao = cachingFilmDao;
+        this.popularityLeaderboard = popularityLeaderboard;
+        this.likeWriteBehind = likeWriteBehind;
+        this.coOccurrenceRecommender = coOccurrenceRecommender;
+        this.filmSimilarityIndex = filmSimilarityIndex;
+        this.filmSearchIndex = filmSearchIndex;
+        this.friendGraphIndex = friendGraphIndex;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("filmorate.films.cache.size", cachingFilmDao, CachingFilmDao::getSize)
+                .description("Количество фильмов в кэше")
+                .register(registry);
+        FunctionCounter.builder("filmorate.films.cache.requests", cachingFilmDao, dao -> dao.getStats().hitCount())
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("filmorate.films.cache.requests", cachingFilmDao, dao -> dao.getStats().missCount())
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("filmorate.films.cache.evictions", cachingFilmDao,
+                        dao -> dao.getStats().evictionCount())
+                .register(registry);
+
+        Gauge.builder("filmorate.popular.films", popularityLeaderboard, PopularityLeaderboard::getSize)
+                .description("Количество фильмов в рейтинге популярности")
+                .register(registry);
+        Gauge.builder("filmorate.likes.queue", likeWriteBehind, LikeWriteBehind::getQueueSize)
+                .description("Количество лайков в очереди отложенной записи")
+                .register(registry);
+
+        Gauge.builder("filmorate.recommendations.progress", coOccurrenceRecommender,
+                        FilmCoOccurrenceRecommender::getProgress)
+                .description("Доля обработанных пользователей при пересчёте рекомендаций")
+                .register(registry);
+        TimeGauge.builder("filmorate.recommendations.duration", coOccurrenceRecommender, TimeUnit.MILLISECONDS,
+                        FilmCoOccurrenceRecommender::getLastDurationMs)
+                .register(registry);
+        Gauge.builder("filmorate.recommendations.films", coOccurrenceRecommender,
+                        FilmCoOccurrenceRecommender::getSnapshotSize)
+                .register(registry);
+
+        Gauge.builder("filmorate.similar.films", filmSimilarityIndex, FilmSimilarityIndex::getIndexedFilms)
+                .register(registry);
+        Gauge.builder("filmorate.search.films", filmSearchIndex, FilmSearchIndex::getIndexedFilms)
+                .register(registry);
+        Gauge.builder("filmorate.friends.edges", friendGraphIndex, FriendGraphIndex::getEdgeCount)
+                .register(registry);
+        Gauge.builder("filmorate.friends.overlay", friendGraphIndex, FriendGraphIndex::getOverlaySize)
+                .register(registry);
+    }
+}
@@ -0,0 +1,73 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+
+public class MeteredDataSource extends DelegatingDataSource {
+    private final QueryMetrics queryMetrics;
+
+    MeteredDataSource(DataSource target, QueryMetrics queryMetrics) {
+        super(target);
+        this.queryMetrics = queryMetrics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connection(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection connection(Connection target) {
+        return proxy(Connection.class, target, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof Statement statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String value ? value : null;
+                return statement(statement, sql);
+            }
+            return result;
+        });
+    }
+
+    private Statement statement(Statement target, String preparedSql) {
+        Class<? extends Statement> type = target instanceof CallableStatement ? CallableStatement.class
+                : target instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+
+        return proxy(type, target, (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return invoke(target, method, args);
+            }
+
+            String sql = args != null && args.length > 0 && args[0] instanceof String value ? value : preparedSql;
+            Timer.Sample sample = Timer.start();
+            try {
+                return invoke(target, method, args);
+            } finally {
+                queryMetrics.recordTime(sql, sample);
+            }
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<? extends T> type, T target, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(MeteredDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
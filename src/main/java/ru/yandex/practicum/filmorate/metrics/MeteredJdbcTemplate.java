@@ -0,0 +1,78 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import org.springframework.jdbc.core.*;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+
+public class MeteredJdbcTemplate extends JdbcTemplate {
+    private final QueryMetrics queryMetrics;
+
+    MeteredJdbcTemplate(JdbcTemplate source, QueryMetrics queryMetrics) {
+        super(source.getDataSource(), source.isLazyInit());
+        setFetchSize(source.getFetchSize());
+        setMaxRows(source.getMaxRows());
+        setQueryTimeout(source.getQueryTimeout());
+        setIgnoreWarnings(source.isIgnoreWarnings());
+        setSkipResultsProcessing(source.isSkipResultsProcessing());
+        setSkipUndeclaredResults(source.isSkipUndeclaredResults());
+        setResultsMapCaseInsensitive(source.isResultsMapCaseInsensitive());
+        this.queryMetrics = queryMetrics;
+    }
+
+    @Override
+    public <T> T query(String sql, ResultSetExtractor<T> rse) {
+        T result = super.query(sql, rse);
+        recordRows(sql, rse, result);
+        return result;
+    }
+
+    @Override
+    public <T> T query(PreparedStatementCreator psc, PreparedStatementSetter pss, ResultSetExtractor<T> rse) {
+        T result = super.query(psc, pss, rse);
+        recordRows(psc instanceof SqlProvider provider ? provider.getSql() : null, rse, result);
+        return result;
+    }
+
+    @Override
+    public void query(String sql, RowCallbackHandler rch) {
+        query(sql, new RowCountingExtractor(rch));
+    }
+
+    @Override
+    public void query(PreparedStatementCreator psc, RowCallbackHandler rch) {
+        query(psc, new RowCountingExtractor(rch));
+    }
+
+    @Override
+    public void query(String sql, PreparedStatementSetter pss, RowCallbackHandler rch) {
+        query(sql, pss, new RowCountingExtractor(rch));
+    }
+
+    private void recordRows(String sql, ResultSetExtractor<?> rse, Object result) {
+        if (rse instanceof RowCountingExtractor extractor) {
+            queryMetrics.recordRows(sql, extractor.rows);
+        } else if (result instanceof Collection<?> collection) {
+            queryMetrics.recordRows(sql, collection.size());
+        }
+    }
+
+    private static final class RowCountingExtractor implements ResultSetExtractor<Object> {
+        private final RowCallbackHandler rch;
+        private long rows;
+
+        private RowCountingExtractor(RowCallbackHandler rch) {
+            this.rch = rch;
+        }
+
+        @Override
+        public Object extractData(ResultSet rs) throws SQLException {
+            while (rs.next()) {
+                rch.processRow(rs);
+                rows++;
+            }
+            return null;
+        }
+    }
+}
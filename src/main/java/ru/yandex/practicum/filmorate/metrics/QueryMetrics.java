@@ -0,0 +1,56 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+final class QueryMetrics {
+    static final String QUERY_TIMER = "filmorate.jdbc.query";
+    static final String QUERY_ROWS = "filmorate.jdbc.rows";
+
+    private final Supplier<MeterRegistry> meterRegistrySupplier;
+    private volatile MeterRegistry meterRegistry;
+    private final QueryNames queryNames = new QueryNames();
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, DistributionSummary> rows = new ConcurrentHashMap<>();
+
+    QueryMetrics(Supplier<MeterRegistry> meterRegistrySupplier) {
+        this.meterRegistrySupplier = meterRegistrySupplier;
+    }
+
+    void recordTime(String sql, Timer.Sample sample) {
+        MeterRegistry registry = meterRegistry();
+        if (registry != null) {
+            sample.stop(timers.computeIfAbsent(queryNames.resolve(sql), name -> Timer.builder(QUERY_TIMER)
+                    .description("Время выполнения SQL-запроса")
+                    .tag("query", name)
+                    .publishPercentileHistogram()
+                    .register(registry)));
+        }
+    }
+
+    void recordRows(String sql, long count) {
+        MeterRegistry registry = meterRegistry();
+        if (registry != null) {
+            rows.computeIfAbsent(queryNames.resolve(sql), name -> DistributionSummary.builder(QUERY_ROWS)
+                            .description("Количество строк, прочитанных SQL-запросом")
+                            .tag("query", name)
+                            .publishPercentileHistogram()
+                            .register(registry))
+                    .record(count);
+        }
+    }
+
+    private MeterRegistry meterRegistry() {
+        MeterRegistry registry = meterRegistry;
+        if (registry == null) {
+            registry = meterRegistrySupplier.get();
+            meterRegistry = registry;
+        }
+        return registry;
+    }
+}
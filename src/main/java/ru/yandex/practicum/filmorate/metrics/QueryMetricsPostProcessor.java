@@ -0,0 +1,29 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+@Component
+public class QueryMetricsPostProcessor implements BeanPostProcessor {
+    private final QueryMetrics queryMetrics;
+
+    public QueryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.queryMetrics = new QueryMetrics(meterRegistry::getIfAvailable);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof MeteredDataSource)) {
+            return new MeteredDataSource(dataSource, queryMetrics);
+        }
+        if (bean instanceof JdbcTemplate jdbcTemplate && !(bean instanceof MeteredJdbcTemplate)) {
+            return new MeteredJdbcTemplate(jdbcTemplate, queryMetrics);
+        }
+        return bean;
+    }
+}
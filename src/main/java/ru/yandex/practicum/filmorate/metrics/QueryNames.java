@@ -0,0 +1,99 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import ru.yandex.practicum.filmorate.storage.constants.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+final class QueryNames {
+    static final String OTHER = "OTHER";
+
+    private static final int MAX_RESOLVED = 10_000;
+    private static final String PLACEHOLDER = "%s";
+    private static final List<String> STATEMENTS = List.of("SELECT", "INSERT", "UPDATE", "DELETE", "MERGE");
+    private static final List<Class<?>> CONSTANTS = List.of(
+            FilmDbConstants.class,
+            FilmGenreDbConstant.class,
+            FriendDbConstants.class,
+            GenreDbConstants.class,
+            LikesDbConstants.class,
+            RatingMpaConstants.class,
+            UserDbConstants.class
+    );
+
+    private final Map<String, String> exact = new HashMap<>();
+    private final List<Template> templates = new ArrayList<>();
+    private final ConcurrentMap<String, String> resolved = new ConcurrentHashMap<>();
+
+    QueryNames() {
+        for (Class<?> constants : CONSTANTS) {
+            for (Field field : constants.getFields()) {
+                String sql = sql(field);
+                if (sql == null) {
+                    continue;
+                }
+                if (sql.contains(PLACEHOLDER)) {
+                    templates.add(new Template(field.getName(), sql.substring(0, sql.indexOf(PLACEHOLDER)),
+                            sql.substring(sql.lastIndexOf(PLACEHOLDER) + PLACEHOLDER.length())));
+                } else {
+                    exact.putIfAbsent(sql, field.getName());
+                }
+            }
+        }
+        templates.sort(Comparator.comparingInt(Template::length).reversed());
+    }
+
+    String resolve(String sql) {
+        if (sql == null) {
+            return OTHER;
+        }
+
+        String name = exact.get(sql);
+        if (name != null) {
+            return name;
+        }
+
+        name = resolved.get(sql);
+        if (name != null) {
+            return name;
+        }
+
+        name = templates.stream()
+                .filter(template -> template.matches(sql))
+                .map(Template::name)
+                .findFirst()
+                .orElse(OTHER);
+        if (resolved.size() < MAX_RESOLVED) {
+            resolved.put(sql, name);
+        }
+        return name;
+    }
+
+    private static String sql(Field field) {
+        int modifiers = field.getModifiers();
+        if (!Modifier.isStatic(modifiers) || !Modifier.isFinal(modifiers) || field.getType() != String.class) {
+            return null;
+        }
+
+        try {
+            String value = (String) field.get(null);
+            String head = value.stripLeading().toUpperCase(Locale.ROOT);
+            return STATEMENTS.stream().anyMatch(head::startsWith) ? value : null;
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private record Template(String name, String prefix, String suffix) {
+        boolean matches(String sql) {
+            return sql.length() >= length() && sql.startsWith(prefix) && sql.endsWith(suffix);
+        }
+
+        int length() {
+            return prefix.length() + suffix.length();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Getter
+public class CursorPage<T> {
+    public static final int DEFAULT_LIMIT = 100;
+
+    public static final int MAX_LIMIT = 1000;
+
+    private final List<T> items;
+
+    private final Long nextCursor;
+
+    public CursorPage(List<T> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public static <T> CursorPage<T> of(List<T> items, int limit, Function<T, Long> cursorOf) {
+        if (items.isEmpty() || items.size() < limit) {
+            return new CursorPage<>(items, null);
+        }
+        return new CursorPage<>(items, cursorOf.apply(items.getLast()));
+    }
+}
@@ -38,6 +38,11 @@ public class Film {
     @Builder.Default
     private Set<Genre> genres = new HashSet<>();
 
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @Builder.Default
     private Set<Like> likes = new HashSet<>();
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Builder.Default
+    private Long likeCount = 0L;
 }
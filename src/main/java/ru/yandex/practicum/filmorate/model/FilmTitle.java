@@ -0,0 +1,15 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.Getter;
+
+@Getter
+public class FilmTitle {
+    private final Long id;
+
+    private final String name;
+
+    public FilmTitle(Long id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+}
@@ -0,0 +1,35 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class FriendPath {
+    private final Status status;
+
+    private final Integer degrees;
+
+    private final List<Long> userIds;
+
+    private FriendPath(Status status, List<Long> userIds) {
+        this.status = status;
+        this.degrees = userIds.isEmpty() ? null : userIds.size() - 1;
+        this.userIds = userIds;
+    }
+
+    public static FriendPath found(List<Long> userIds) {
+        return new FriendPath(Status.FOUND, userIds);
+    }
+
+    public static FriendPath of(Status status) {
+        return new FriendPath(status, List.of());
+    }
+
+    public enum Status {
+        FOUND,
+        NOT_FOUND,
+        TOO_FAR,
+        BUDGET_EXCEEDED
+    }
+}
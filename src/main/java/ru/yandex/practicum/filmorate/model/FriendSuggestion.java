@@ -0,0 +1,15 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.Getter;
+
+@Getter
+public class FriendSuggestion {
+    private final User user;
+
+    private final int mutualFriends;
+
+    public FriendSuggestion(User user, int mutualFriends) {
+        this.user = user;
+        this.mutualFriends = mutualFriends;
+    }
+}
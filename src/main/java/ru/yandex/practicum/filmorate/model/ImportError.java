@@ -0,0 +1,15 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.Getter;
+
+@Getter
+public class ImportError {
+    private final long line;
+
+    private final String message;
+
+    public ImportError(long line, String message) {
+        this.line = line;
+        this.message = message;
+    }
+}
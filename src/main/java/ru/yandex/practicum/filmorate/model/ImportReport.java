@@ -0,0 +1,36 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+public class ImportReport {
+    private long imported;
+
+    private long rejected;
+
+    private boolean errorsTruncated;
+
+    private final List<ImportError> errors = new ArrayList<>();
+
+    private final int maxErrors;
+
+    public ImportReport(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    public void addImported(int count) {
+        imported += count;
+    }
+
+    public void reject(long line, String message) {
+        rejected++;
+        if (errors.size() < maxErrors) {
+            errors.add(new ImportError(line, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+}
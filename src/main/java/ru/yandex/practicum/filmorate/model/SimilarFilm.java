@@ -0,0 +1,15 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.Getter;
+
+@Getter
+public class SimilarFilm {
+    private final Film film;
+
+    private final double similarity;
+
+    public SimilarFilm(Film film, double similarity) {
+        this.film = film;
+        this.similarity = similarity;
+    }
+}
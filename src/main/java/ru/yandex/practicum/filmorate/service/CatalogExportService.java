@@ -0,0 +1,146 @@
+package ru.yandex.practicum.filmorate.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.ExportFormat;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.dao.film.FilmDao;
+import ru.yandex.practicum.filmorate.storage.dao.user.UserDao;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class CatalogExportService {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String FILM_CSV_HEADER =
+            "id,name,description,release_date,duration,mpa_id,mpa_name,genre_ids,like_count";
+
+    private static final String USER_CSV_HEADER = "id,email,login,name,birthday,friend_ids";
+
+    private final FilmDao filmDao;
+    private final UserDao userDao;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public CatalogExportService(@Qualifier("filmDaoImpl") FilmDao filmDao,
+                                @Qualifier("userDaoImpl") UserDao userDao,
+                                ObjectMapper objectMapper) {
+        this.filmDao = filmDao;
+        this.userDao = userDao;
+        this.objectMapper = objectMapper;
+    }
+
+    public ExportFormat format(String format) {
+        return Arrays.stream(ExportFormat.values())
+                .filter(value -> value.getExtension().equalsIgnoreCase(format))
+                .findFirst()
+                .orElseThrow(() -> {
+                    log.warn("Запрошен неизвестный формат экспорта: {}", format);
+                    return new ValidationException("Неизвестный формат экспорта: " + format);
+                });
+    }
+
+    public void exportFilms(ExportFormat format, OutputStream out) throws IOException {
+        log.info("Экспорт фильмов в формате {}", format);
+
+        Writer writer = writer(out);
+        AtomicLong rows = new AtomicLong();
+        Function<Film, String> line = format == ExportFormat.CSV ? this::filmCsv : this::json;
+
+        if (format == ExportFormat.CSV) {
+            writeLine(writer, FILM_CSV_HEADER);
+        }
+        filmDao.streamFilms(film -> {
+            writeLine(writer, line.apply(film));
+            rows.incrementAndGet();
+        });
+        writer.flush();
+
+        log.info("Экспортировано {} фильмов", rows.get());
+    }
+
+    public void exportUsers(ExportFormat format, OutputStream out) throws IOException {
+        log.info("Экспорт пользователей в формате {}", format);
+
+        Writer writer = writer(out);
+        AtomicLong rows = new AtomicLong();
+        Function<User, String> line = format == ExportFormat.CSV ? this::userCsv : this::json;
+
+        if (format == ExportFormat.CSV) {
+            writeLine(writer, USER_CSV_HEADER);
+        }
+        userDao.streamUsers(user -> {
+            writeLine(writer, line.apply(user));
+            rows.incrementAndGet();
+        });
+        writer.flush();
+
+        log.info("Экспортировано {} пользователей", rows.get());
+    }
+
+    private Writer writer(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    private void writeLine(Writer writer, String line) {
+        try {
+            writer.write(line);
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String filmCsv(Film film) {
+        return csv(film.getId(), film.getName(), film.getDescription(), film.getReleaseDate(), film.getDuration(),
+                film.getRatingMpa().getId(), film.getRatingMpa().getName(),
+                ids(film.getGenres().stream().map(Genre::getId).toList()), film.getLikeCount());
+    }
+
+    private String userCsv(User user) {
+        return csv(user.getId(), user.getEmail(), user.getLogin(), user.getName(), user.getBirthday(),
+                ids(user.getFriends()));
+    }
+
+    private static String ids(Collection<Long> ids) {
+        return ids.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(";"));
+    }
+
+    private static String csv(Object... values) {
+        return Arrays.stream(values)
+                .map(value -> value == null ? "" : escape(value.toString()))
+                .collect(Collectors.joining(","));
+    }
+
+    private static String escape(String value) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
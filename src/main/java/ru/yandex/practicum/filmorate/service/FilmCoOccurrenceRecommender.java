@@ -0,0 +1,242 @@
+package ru.yandex.practicum.filmorate.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.storage.dao.film.FilmDao;
+
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Slf4j
+@Component
+public class FilmCoOccurrenceRecommender {
+    private static final long[] NO_RECOMMENDATIONS = new long[0];
+    private static final Comparator<long[]> NEIGHBOUR_ORDER = Comparator.<long[]>comparingLong(entry -> entry[1])
+            .thenComparingLong(entry -> -entry[0]);
+
+    private final FilmDao filmDao;
+    private final int neighbours;
+    private final int maxLikesPerUser;
+    private final int splitThreshold;
+    private final long initialDelayMs;
+    private final long intervalMs;
+    private final ForkJoinPool pool;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicReference<Map<Long, long[]>> snapshot = new AtomicReference<>(Map.of());
+    private final AtomicLong processedUsers = new AtomicLong();
+    private volatile long totalUsers;
+    private volatile long lastDurationMs = -1;
+
+    @Autowired
+    public FilmCoOccurrenceRecommender(@Qualifier("filmDaoImpl") FilmDao filmDao,
+                                       @Value("${filmorate.recommendations.neighbours:20}") int neighbours,
+                                       @Value("${filmorate.recommendations.max-likes-per-user:1000}") int maxLikesPerUser,
+                                       @Value("${filmorate.recommendations.split-threshold:1024}") int splitThreshold,
+                                       @Value("${filmorate.recommendations.parallelism:0}") int parallelism,
+                                       @Value("${filmorate.recommendations.initial-delay-ms:5000}") long initialDelayMs,
+                                       @Value("${filmorate.recommendations.interval-ms:3600000}") long intervalMs) {
+        this.filmDao = filmDao;
+        this.neighbours = neighbours;
+        this.maxLikesPerUser = maxLikesPerUser;
+        this.splitThreshold = splitThreshold;
+        this.initialDelayMs = initialDelayMs;
+        this.intervalMs = intervalMs;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "film-recommendations");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::recomputeSafely, initialDelayMs, intervalMs, TimeUnit.MILLISECONDS);
+        log.info("Пересчёт рекомендаций запланирован: первый через {} мс, далее каждые {} мс",
+                initialDelayMs, intervalMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    public synchronized void recompute() {
+        long started = System.nanoTime();
+        log.info("Пересчёт рекомендаций по совместным лайкам запущен");
+
+        LikeMatrix matrix = LikeMatrix.load(filmDao);
+        processedUsers.set(0);
+        totalUsers = matrix.users();
+
+        LongIntCounter pairs = matrix.users() == 0
+                ? new LongIntCounter(8)
+                : pool.invoke(new PairCountTask(matrix, 0, matrix.users()));
+        Map<Long, long[]> next = topNeighbours(matrix.filmIds(), pairs);
+        snapshot.set(next);
+
+        lastDurationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        log.info("Рекомендации пересчитаны за {} мс: {} пользователей, {} фильмов, {} пар",
+                lastDurationMs, matrix.users(), next.size(), pairs.size());
+    }
+
+    private void recomputeSafely() {
+        try {
+            recompute();
+        } catch (RuntimeException e) {
+            log.warn("Пересчёт рекомендаций завершился ошибкой: {}", e.getMessage(), e);
+        }
+    }
+
+    public long[] recommendations(long filmId) {
+        return snapshot.get().getOrDefault(filmId, NO_RECOMMENDATIONS);
+    }
+
+    public double getProgress() {
+        long total = totalUsers;
+        return total == 0 ? 1.0 : (double) processedUsers.get() / total;
+    }
+
+    public long getLastDurationMs() {
+        return lastDurationMs;
+    }
+
+    public int getSnapshotSize() {
+        return snapshot.get().size();
+    }
+
+    private Map<Long, long[]> topNeighbours(long[] filmIds, LongIntCounter pairs) {
+        List<PriorityQueue<long[]>> heaps = new ArrayList<>(Collections.nCopies(filmIds.length, null));
+        pairs.forEach((pair, count) -> {
+            int first = (int) (pair >>> 32);
+            int second = (int) pair;
+            offer(heaps, first, second, count);
+            offer(heaps, second, first, count);
+        });
+
+        Map<Long, long[]> next = new HashMap<>();
+        for (int film = 0; film < heaps.size(); film++) {
+            PriorityQueue<long[]> heap = heaps.get(film);
+            if (heap == null) {
+                continue;
+            }
+
+            List<long[]> ranked = new ArrayList<>(heap);
+            ranked.sort(NEIGHBOUR_ORDER.reversed());
+            next.put(filmIds[film], ranked.stream().mapToLong(entry -> filmIds[(int) entry[0]]).toArray());
+        }
+        return Collections.unmodifiableMap(next);
+    }
+
+    private void offer(List<PriorityQueue<long[]>> heaps, int film, int neighbour, int count) {
+        PriorityQueue<long[]> heap = heaps.get(film);
+        if (heap == null) {
+            heap = new PriorityQueue<>(neighbours + 1, NEIGHBOUR_ORDER);
+            heaps.set(film, heap);
+        }
+
+        long[] entry = {neighbour, count};
+        if (heap.size() < neighbours) {
+            heap.add(entry);
+        } else if (NEIGHBOUR_ORDER.compare(entry, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(entry);
+        }
+    }
+
+    private LongIntCounter countPairs(LikeMatrix matrix, int fromUser, int toUser) {
+        LongIntCounter pairs = new LongIntCounter(1024);
+        for (int user = fromUser; user < toUser; user++) {
+            int from = matrix.offsets()[user];
+            int to = matrix.offsets()[user + 1];
+            if (to - from > maxLikesPerUser) {
+                continue;
+            }
+
+            for (int i = from; i < to; i++) {
+                long first = matrix.films()[i];
+                for (int j = i + 1; j < to; j++) {
+                    pairs.add(first << 32 | matrix.films()[j], 1);
+                }
+            }
+        }
+        processedUsers.addAndGet(toUser - fromUser);
+        return pairs;
+    }
+
+    private class PairCountTask extends RecursiveTask<LongIntCounter> {
+        private final LikeMatrix matrix;
+        private final int fromUser;
+        private final int toUser;
+
+        PairCountTask(LikeMatrix matrix, int fromUser, int toUser) {
+            this.matrix = matrix;
+            this.fromUser = fromUser;
+            this.toUser = toUser;
+        }
+
+        @Override
+        protected LongIntCounter compute() {
+            if (toUser - fromUser <= splitThreshold) {
+                return countPairs(matrix, fromUser, toUser);
+            }
+
+            int middle = (fromUser + toUser) >>> 1;
+            PairCountTask left = new PairCountTask(matrix, fromUser, middle);
+            left.fork();
+            LongIntCounter right = new PairCountTask(matrix, middle, toUser).compute();
+            LongIntCounter merged = left.join();
+            if (merged.size() < right.size()) {
+                right.addAll(merged);
+                return right;
+            }
+            merged.addAll(right);
+            return merged;
+        }
+    }
+
+    private record LikeMatrix(long[] filmIds, int[] offsets, int[] films) {
+        int users() {
+            return offsets.length - 1;
+        }
+
+        static LikeMatrix load(FilmDao filmDao) {
+            long[][] likes = {new long[1024], new long[1024]};
+            int[] size = {0};
+            filmDao.streamLikes((filmId, userId) -> {
+                if (size[0] == likes[0].length) {
+                    likes[0] = Arrays.copyOf(likes[0], size[0] * 2);
+                    likes[1] = Arrays.copyOf(likes[1], size[0] * 2);
+                }
+                likes[0][size[0]] = filmId;
+                likes[1][size[0]] = userId;
+                size[0]++;
+            });
+
+            long[] filmIds = Arrays.stream(likes[0], 0, size[0]).sorted().distinct().toArray();
+            int[] films = new int[size[0]];
+            int[] offsets = new int[size[0] + 1];
+            int users = 0;
+            for (int i = 0; i < size[0]; i++) {
+                if (i == 0 || likes[1][i] != likes[1][i - 1]) {
+                    offsets[users++] = i;
+                }
+                films[i] = Arrays.binarySearch(filmIds, likes[0][i]);
+            }
+            offsets[users] = size[0];
+            return new LikeMatrix(filmIds, Arrays.copyOf(offsets, users + 1), films);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package ru.yandex.practicum.filmorate.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.ImportReport;
+import ru.yandex.practicum.filmorate.model.RatingMpa;
+import ru.yandex.practicum.filmorate.storage.dao.film.FilmDao;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class FilmImportService {
+    private final FilmDao filmDao;
+    private final ReferenceDataCache referenceDataCache;
+    private final PopularityLeaderboard popularityLeaderboard;
+    private final FilmSearchIndex filmSearchIndex;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int maxErrors;
+
+    @Autowired
+    public FilmImportService(@Qualifier("cachingFilmDao") FilmDao filmDao,
+                             ReferenceDataCache referenceDataCache,
+                             PopularityLeaderboard popularityLeaderboard,
+                             FilmSearchIndex filmSearchIndex,
+                             ObjectMapper objectMapper,
+                             Validator validator,
+                             @Value("${filmorate.films.import.chunk-size:1000}") int chunkSize,
+                             @Value("${filmorate.films.import.max-errors:1000}") int maxErrors) {
+        this.filmDao = filmDao;
+        this.referenceDataCache = referenceDataCache;
+        this.popularityLeaderboard = popularityLeaderboard;
+        this.filmSearchIndex = filmSearchIndex;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+    }
+
+    public ImportReport importFilms(InputStream body) throws IOException {
+        log.info("Запрос на пакетный импорт фильмов");
+
+        ImportReport report = new ImportReport(maxErrors);
+        List<Film> chunk = new ArrayList<>(chunkSize);
+        List<Long> chunkLines = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                try {
+                    chunk.add(parse(line));
+                    chunkLines.add(lineNumber);
+                } catch (ValidationException | NotFoundException e) {
+                    report.reject(lineNumber, e.getMessage());
+                }
+
+                if (chunk.size() == chunkSize) {
+                    write(chunk, chunkLines, report);
+                }
+            }
+        }
+        write(chunk, chunkLines, report);
+
+        log.info("Импорт завершён: загружено {} фильмов, отклонено {} строк", report.getImported(), report.getRejected());
+        return report;
+    }
+
+    private Film parse(String line) {
+        Film film;
+        try {
+            film = objectMapper.readValue(line, Film.class);
+        } catch (JsonProcessingException e) {
+            throw new ValidationException("Некорректный JSON: " + e.getOriginalMessage());
+        }
+
+        Set<ConstraintViolation<Film>> violations = validator.validate(film);
+        if (!violations.isEmpty()) {
+            throw new ValidationException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+
+        if (film.getReleaseDate().isBefore(FilmService.MIN_DATE_RELEASE)) {
+            throw new ValidationException("Дата релиза не может быть раньше 28 декабря 1895 года");
+        }
+
+        return Film.builder()
+                .name(film.getName())
+                .description(film.getDescription())
+                .releaseDate(film.getReleaseDate())
+                .duration(film.getDuration())
+                .ratingMpa(rating(film.getRatingMpa()))
+                .genres(genres(film.getGenres()))
+                .build();
+    }
+
+    private RatingMpa rating(RatingMpa rating) {
+        if (rating == null) {
+            return referenceDataCache.findRating(1L).orElseThrow(() -> new NotFoundException("Рейтинг не найден"));
+        }
+        return referenceDataCache.findRating(rating.getId())
+                .orElseThrow(() -> new NotFoundException("Рейтинг не найден"));
+    }
+
+    private Set<Genre> genres(Set<Genre> genres) {
+        if (genres == null) {
+            return new LinkedHashSet<>();
+        }
+
+        List<Genre> sortedGenres = new ArrayList<>();
+        for (Genre genre : genres) {
+            sortedGenres.add(referenceDataCache.findGenre(genre.getId())
+                    .orElseThrow(() -> new NotFoundException("Жанр не найден")));
+        }
+        sortedGenres.sort(Comparator.comparingLong(Genre::getId));
+        return new LinkedHashSet<>(sortedGenres);
+    }
+
+    private void write(List<Film> chunk, List<Long> chunkLines, ImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        try {
+            filmDao.createAll(chunk);
+            chunk.forEach(film -> {
+                popularityLeaderboard.assign(film);
+                popularityLeaderboard.set(film.getId(), 0);
+                filmSearchIndex.index(film);
+            });
+            report.addImported(chunk.size());
+        } catch (RuntimeException e) {
+            log.warn("Пакет из {} фильмов не записан, повтор по одному: {}", chunk.size(), e.getMessage());
+            for (int i = 0; i < chunk.size(); i++) {
+                writeOne(chunk.get(i), chunkLines.get(i), report);
+            }
+        }
+
+        chunk.clear();
+        chunkLines.clear();
+    }
+
+    private void writeOne(Film film, long line, ImportReport report) {
+        film.setId(null);
+        try {
+            filmDao.createAll(List.of(film));
+            popularityLeaderboard.assign(film);
+            popularityLeaderboard.set(film.getId(), 0);
+            filmSearchIndex.index(film);
+            report.addImported(1);
+        } catch (RuntimeException e) {
+            report.reject(line, e.getMessage());
+        }
+    }
+}
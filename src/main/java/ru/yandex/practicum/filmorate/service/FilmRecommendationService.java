@@ -0,0 +1,88 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.SimilarFilm;
+import ru.yandex.practicum.filmorate.storage.dao.film.FilmDao;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class FilmRecommendationService {
+    private static final int DEFAULT_LIMIT = 10;
+    private static final int MAX_LIMIT = 100;
+
+    private final FilmDao filmDao;
+    private final FilmCoOccurrenceRecommender coOccurrenceRecommender;
+    private final FilmSimilarityIndex filmSimilarityIndex;
+
+    @Autowired
+    public FilmRecommendationService(@Qualifier("cachingFilmDao") FilmDao filmDao,
+                                     FilmCoOccurrenceRecommender coOccurrenceRecommender,
+                                     FilmSimilarityIndex filmSimilarityIndex) {
+        this.filmDao = filmDao;
+        this.coOccurrenceRecommender = coOccurrenceRecommender;
+        this.filmSimilarityIndex = filmSimilarityIndex;
+    }
+
+    public Collection<Film> getRecommendations(Long filmId, Integer limit) {
+        log.info("Запрос рекомендаций для фильма с id = {}", filmId);
+
+        int size = limit(limit);
+        requireFilm(filmId);
+
+        long[] filmIds = coOccurrenceRecommender.recommendations(filmId);
+        Collection<Film> films = filmDao.getFilmsByIds(Arrays.stream(filmIds).limit(size).boxed().toList());
+
+        log.info("Для фильма с id = {} найдено {} рекомендаций", filmId, films.size());
+        return films;
+    }
+
+    public List<SimilarFilm> getSimilar(Long filmId, Integer limit) {
+        log.info("Запрос похожих фильмов для фильма с id = {}", filmId);
+
+        int size = limit(limit);
+        requireFilm(filmId);
+
+        List<FilmSimilarityIndex.Match> matches = filmSimilarityIndex.similar(filmId, size);
+        Map<Long, Film> films = filmDao.getFilmsByIds(matches.stream().map(FilmSimilarityIndex.Match::filmId).toList())
+                .stream()
+                .collect(Collectors.toMap(Film::getId, Function.identity()));
+
+        List<SimilarFilm> similar = matches.stream()
+                .filter(match -> films.containsKey(match.filmId()))
+                .map(match -> new SimilarFilm(films.get(match.filmId()), match.similarity()))
+                .toList();
+
+        log.info("Для фильма с id = {} найдено {} похожих фильмов", filmId, similar.size());
+        return similar;
+    }
+
+    private int limit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1) {
+            throw new ValidationException("Количество рекомендаций не должно быть меньше 1");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    private void requireFilm(Long filmId) {
+        if (!filmDao.filmExists(filmId)) {
+            log.warn("Фильм с id = {} не найден", filmId);
+            throw new NotFoundException("Фильм не найден");
+        }
+    }
+}
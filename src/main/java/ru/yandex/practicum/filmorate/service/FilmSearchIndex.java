@@ -0,0 +1,213 @@
+package ru.yandex.practicum.filmorate.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.dao.film.FilmDao;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongUnaryOperator;
+
+@Slf4j
+@Component
+public class FilmSearchIndex {
+    private static final int NAME_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final FilmDao filmDao;
+    private final ConcurrentMap<Long, Document> documents = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<String, LongPostings> namePostings = new ConcurrentSkipListMap<>();
+    private final ConcurrentNavigableMap<String, LongPostings> descriptionPostings = new ConcurrentSkipListMap<>();
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    @Autowired
+    public FilmSearchIndex(@Qualifier("filmDaoImpl") FilmDao filmDao) {
+        this.filmDao = filmDao;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        rebuildLock.writeLock().lock();
+        try {
+            documents.clear();
+            namePostings.clear();
+            descriptionPostings.clear();
+
+            Map<String, LongPostings.Builder> names = new HashMap<>();
+            Map<String, LongPostings.Builder> descriptions = new HashMap<>();
+            filmDao.streamFilms(film -> {
+                Document document = document(film);
+                documents.put(film.getId(), document);
+                document.nameTokens().forEach(token ->
+                        names.computeIfAbsent(token, key -> new LongPostings.Builder()).add(film.getId()));
+                document.descriptionTokens().forEach(token ->
+                        descriptions.computeIfAbsent(token, key -> new LongPostings.Builder()).add(film.getId()));
+            });
+            names.forEach((token, builder) -> namePostings.put(token, builder.build()));
+            descriptions.forEach((token, builder) -> descriptionPostings.put(token, builder.build()));
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+        log.info("Поисковый индекс построен: {} фильмов, {} терминов в названиях, {} в описаниях",
+                documents.size(), namePostings.size(), descriptionPostings.size());
+    }
+
+    public void index(Film film) {
+        Document next = document(film);
+        rebuildLock.readLock().lock();
+        try {
+            documents.compute(film.getId(), (filmId, current) -> {
+                if (current != null) {
+                    unlink(filmId, current);
+                }
+                link(filmId, next);
+                return next;
+            });
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    public void remove(long filmId) {
+        rebuildLock.readLock().lock();
+        try {
+            documents.computeIfPresent(filmId, (id, current) -> {
+                unlink(id, current);
+                return null;
+            });
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    LongIntCounter search(String query) {
+        LongIntCounter scores = new LongIntCounter(64);
+        for (String token : tokens(query)) {
+            score(scores, namePostings.get(token), NAME_WEIGHT);
+            score(scores, descriptionPostings.get(token), DESCRIPTION_WEIGHT);
+        }
+        return scores;
+    }
+
+    public long[] titlesStartingWith(String prefix, int limit, LongUnaryOperator likeCount) {
+        List<String> prefixTokens = tokens(prefix);
+        if (prefixTokens.isEmpty()) {
+            return new long[0];
+        }
+
+        String last = prefixTokens.getLast();
+        Comparator<long[]> order = Comparator.<long[]>comparingLong(candidate -> candidate[1])
+                .thenComparingLong(candidate -> -candidate[0]);
+        PriorityQueue<long[]> heap = new PriorityQueue<>(limit + 1, order);
+        LongIntCounter seen = new LongIntCounter(64);
+        for (LongPostings postings : namePostings.subMap(last, true, last + Character.MAX_VALUE, false).values()) {
+            postings.forEach(filmId -> {
+                if (seen.get(filmId) == 0 && matchesAll(filmId, prefixTokens)) {
+                    seen.add(filmId, 1);
+                    heap.add(new long[]{filmId, likeCount.applyAsLong(filmId)});
+                    if (heap.size() > limit) {
+                        heap.poll();
+                    }
+                }
+            });
+        }
+
+        List<long[]> ranked = new ArrayList<>(heap);
+        ranked.sort(order.reversed());
+        return ranked.stream().mapToLong(candidate -> candidate[0]).toArray();
+    }
+
+    public String title(long filmId) {
+        Document document = documents.get(filmId);
+        return document == null ? null : document.name();
+    }
+
+    public int getIndexedFilms() {
+        return documents.size();
+    }
+
+    static List<String> tokens(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                token.append(c == 'ё' ? 'е' : c);
+            } else if (!token.isEmpty()) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (!token.isEmpty()) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    private boolean matchesAll(long filmId, List<String> prefixTokens) {
+        Document document = documents.get(filmId);
+        if (document == null) {
+            return false;
+        }
+        for (int i = 0; i < prefixTokens.size() - 1; i++) {
+            if (!document.nameTokens().contains(prefixTokens.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void score(LongIntCounter scores, LongPostings postings, int weight) {
+        if (postings != null) {
+            postings.forEach(filmId -> scores.add(filmId, weight));
+        }
+    }
+
+    private static Document document(Film film) {
+        return new Document(film.getName(), tokens(film.getName()), tokens(film.getDescription()));
+    }
+
+    private void link(long filmId, Document document) {
+        document.nameTokens().forEach(token -> link(namePostings, token, filmId));
+        document.descriptionTokens().forEach(token -> link(descriptionPostings, token, filmId));
+    }
+
+    private void unlink(long filmId, Document document) {
+        document.nameTokens().forEach(token -> unlink(namePostings, token, filmId));
+        document.descriptionTokens().forEach(token -> unlink(descriptionPostings, token, filmId));
+    }
+
+    private static void link(ConcurrentMap<String, LongPostings> postings, String token, long filmId) {
+        LongPostings current = postings.computeIfAbsent(token, key -> new LongPostings());
+        while (!current.add(filmId)) {
+            postings.remove(token, current);
+            current = postings.computeIfAbsent(token, key -> new LongPostings());
+        }
+    }
+
+    private static void unlink(ConcurrentMap<String, LongPostings> postings, String token, long filmId) {
+        LongPostings current = postings.get(token);
+        if (current != null && current.remove(filmId)) {
+            postings.remove(token, current);
+        }
+    }
+
+    private record Document(String name, Set<String> nameTokens, Set<String> descriptionTokens) {
+        Document(String name, List<String> nameTokens, List<String> descriptionTokens) {
+            this(name, Set.copyOf(nameTokens), Set.copyOf(descriptionTokens));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmTitle;
+import ru.yandex.practicum.filmorate.storage.dao.film.FilmDao;
+
+import java.util.*;
+
+@Slf4j
+@Service
+public class FilmSearchService {
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 100;
+
+    private final FilmDao filmDao;
+    private final FilmSearchIndex filmSearchIndex;
+    private final PopularityLeaderboard popularityLeaderboard;
+
+    @Autowired
+    public FilmSearchService(@Qualifier("cachingFilmDao") FilmDao filmDao,
+                             FilmSearchIndex filmSearchIndex,
+                             PopularityLeaderboard popularityLeaderboard) {
+        this.filmDao = filmDao;
+        this.filmSearchIndex = filmSearchIndex;
+        this.popularityLeaderboard = popularityLeaderboard;
+    }
+
+    public Collection<Film> search(String query, Integer limit) {
+        log.info("Поиск фильмов по запросу: {}", query);
+
+        int size = limit(limit);
+        if (FilmSearchIndex.tokens(query).isEmpty()) {
+            log.warn("Поисковый запрос пустой");
+            throw new ValidationException("Поисковый запрос не может быть пустым");
+        }
+
+        LongIntCounter scores = filmSearchIndex.search(query);
+        Comparator<long[]> order = Comparator.<long[]>comparingLong(candidate -> candidate[1])
+                .thenComparingLong(candidate -> candidate[2])
+                .thenComparingLong(candidate -> -candidate[0]);
+        PriorityQueue<long[]> heap = new PriorityQueue<>(size + 1, order);
+        scores.forEach((filmId, score) -> {
+            heap.add(new long[]{filmId, score, popularityLeaderboard.likeCount(filmId)});
+            if (heap.size() > size) {
+                heap.poll();
+            }
+        });
+
+        List<long[]> ranked = new ArrayList<>(heap);
+        ranked.sort(order.reversed());
+        Collection<Film> films = filmDao.getFilmsByIds(ranked.stream().map(candidate -> candidate[0]).toList());
+
+        log.info("По запросу {} найдено {} фильмов из {} совпадений", query, films.size(), scores.size());
+        return films;
+    }
+
+    public List<FilmTitle> autocomplete(String prefix, Integer limit) {
+        log.info("Автодополнение названий фильмов по префиксу: {}", prefix);
+
+        int size = limit(limit);
+        List<FilmTitle> titles = Arrays.stream(filmSearchIndex.titlesStartingWith(prefix, size, popularityLeaderboard::likeCount))
+                .boxed()
+                .map(filmId -> new FilmTitle(filmId, filmSearchIndex.title(filmId)))
+                .filter(title -> title.getName() != null)
+                .toList();
+
+        log.info("По префиксу {} найдено {} названий", prefix, titles.size());
+        return titles;
+    }
+
+    private int limit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1) {
+            throw new ValidationException("Количество результатов не должно быть меньше 1");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+}
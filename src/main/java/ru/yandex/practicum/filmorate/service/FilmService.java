@@ -1,11 +1,18 @@
 package ru.yandex.practicum.filmorate.service;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
 import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.CursorPage;
 import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.Genre;
 import ru.yandex.practicum.filmorate.model.Like;
@@ -16,18 +23,39 @@ import ru.yandex.practicum.filmorate.storage.dao.user.UserDao;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.stream.Collectors;
 
 @Slf4j
+@Timed(value = "filmorate.service", histogram = true)
 @Service
 public class FilmService {
     private final FilmDao filmDao;
     private final UserDao userDao;
-    private static final LocalDate MIN_DATE_RELEASE = LocalDate.parse("1895-12-28", DateTimeFormatter.ISO_LOCAL_DATE);
+    private final PopularityLeaderboard popularityLeaderboard;
+    private final ReferenceDataCache referenceDataCache;
+    private final LikeWriteBehind likeWriteBehind;
+    private final FilmSimilarityIndex filmSimilarityIndex;
+    private final FilmSearchIndex filmSearchIndex;
+    private final Validator validator;
+    static final LocalDate MIN_DATE_RELEASE = LocalDate.parse("1895-12-28", DateTimeFormatter.ISO_LOCAL_DATE);
 
     @Autowired
-    public FilmService(@Qualifier("filmDaoImpl") FilmDao filmDao, @Qualifier("userDaoImpl") UserDao userDao) {
+    public FilmService(@Qualifier("cachingFilmDao") FilmDao filmDao,
+                       @Qualifier("userDaoImpl") UserDao userDao,
+                       PopularityLeaderboard popularityLeaderboard,
+                       ReferenceDataCache referenceDataCache,
+                       LikeWriteBehind likeWriteBehind,
+                       FilmSimilarityIndex filmSimilarityIndex,
+                       FilmSearchIndex filmSearchIndex,
+                       Validator validator) {
         this.filmDao = filmDao;
         this.userDao = userDao;
+        this.popularityLeaderboard = popularityLeaderboard;
+        this.referenceDataCache = referenceDataCache;
+        this.likeWriteBehind = likeWriteBehind;
+        this.filmSimilarityIndex = filmSimilarityIndex;
+        this.filmSearchIndex = filmSearchIndex;
+        this.validator = validator;
     }
 
     public Collection<Film> getFilms() {
@@ -40,13 +68,42 @@ public class FilmService {
         return films;
     }
 
+    public CursorPage<Film> getFilms(Long after, Integer limit) {
+        log.info("Запрос страницы фильмов после id = {}, размер страницы {}", after, limit);
+
+        int pageSize = PageRequests.size(after, limit);
+        List<Film> films = new ArrayList<>(filmDao.getFilms(PageRequests.after(after), pageSize));
+
+        log.info("Найдено {} фильмов на странице", films.size());
+        return CursorPage.of(films, pageSize, Film::getId);
+    }
+
+    public CursorPage<Like> getLikes(Long filmId, Long after, Integer limit) {
+        log.info("Запрос страницы лайков фильма с id = {} после пользователя с id = {}", filmId, after);
+
+        int pageSize = PageRequests.size(after, limit);
+        if (filmDao.getFilmById(filmId) == null) {
+            log.warn("Фильм с id = {} не найден", filmId);
+            throw new NotFoundException("Фильм не найден");
+        }
+
+        List<Like> likes = new ArrayList<>(filmDao.getLikesByFilmId(filmId, PageRequests.after(after), pageSize));
+
+        log.info("Найдено {} лайков на странице", likes.size());
+        return CursorPage.of(likes, pageSize, Like::getUserId);
+    }
+
     public Collection<Film> getPopular(Integer count) {
-        log.info("Получен запрос на список популярных фильмов");
+        return getPopular(count, null, null, null);
+    }
+
+    public Collection<Film> getPopular(Integer count, Long genreId, Integer year, Long mpaId) {
+        log.info("Получен запрос на список популярных фильмов: жанр = {}, год = {}, рейтинг = {}", genreId, year, mpaId);
         if (count < 1) {
             throw new ValidationException("Количество фильмов для вывода не должно быть меньше 1");
         }
 
-        Collection<Film> topFilms = filmDao.getPopular(count);
+        Collection<Film> topFilms = filmDao.getFilmsByIds(popularityLeaderboard.top(count, genreId, year, mpaId));
         if (topFilms.isEmpty()) log.warn("Список популярных фильмов пустой");
 
         log.info("Сформирован список из {} популярных фильмов", topFilms.size());
@@ -56,7 +113,7 @@ public class FilmService {
     public Collection<Genre> getGenres() {
         log.info("Получен запрос на список всех жанров");
 
-        Collection<Genre> genres = filmDao.getGenres();
+        Collection<Genre> genres = referenceDataCache.getGenres();
         if (genres.isEmpty()) log.warn("Список жанров пустой");
 
         log.info("Найдено {} жанров", genres.size());
@@ -66,7 +123,7 @@ public class FilmService {
     public Collection<RatingMpa> getRatings() {
         log.info("Запрос на получение всех рейтингов");
 
-        Collection<RatingMpa> ratings = filmDao.getRatings();
+        Collection<RatingMpa> ratings = referenceDataCache.getRatings();
         if (ratings.isEmpty()) log.warn("Список рейтингов пустой");
 
         log.info("Найдено {} рейтингов", ratings.size());
@@ -76,7 +133,7 @@ public class FilmService {
     public Genre getGenreById(Long genreId) {
         log.info("Запрос жанра с id = {}", genreId);
 
-        Genre genre = filmDao.getGenresById(genreId);
+        Genre genre = findGenre(genreId);
 
         log.info("Жанр с id = {} найден", genreId);
         return genre;
@@ -85,7 +142,7 @@ public class FilmService {
     public RatingMpa getRatingById(Long ratingId) {
         log.info("Запрос на рейтинг с id = {}", ratingId);
 
-        RatingMpa rating = filmDao.getRatingMpaById(ratingId);
+        RatingMpa rating = findRating(ratingId);
 
         log.info("Рейтинг с id = {} успешно найден", ratingId);
         return rating;
@@ -100,6 +157,7 @@ public class FilmService {
         return film;
     }
 
+    @Transactional
     public Film create(Film film) {
         log.info("Запрос на создание фильма {}", film.getName());
 
@@ -120,22 +178,22 @@ public class FilmService {
 
         Film createFilm = filmDao.create(newFilm);
 
-        for (Genre genre : film.getGenres()) {
-            filmDao.addLinkFilmGenres(createFilm.getId(), genre.getId());
-        }
+        filmDao.addLinkFilmGenres(createFilm.getId(), genreIds(film));
         createFilm.setGenres(film.getGenres());
 
-        for (Like like : film.getLikes()) {
-            filmDao.addLikes(createFilm.getId(), like.getUserId());
-        }
+        filmDao.addLikes(createFilm.getId(), likeUserIds(film));
         createFilm.setLikes(film.getLikes());
-
-
+        createFilm.setLikeCount((long) film.getLikes().size());
+        popularityLeaderboard.assign(createFilm);
+        popularityLeaderboard.set(createFilm.getId(), film.getLikes().size());
+        likeUserIds(film).forEach(userId -> filmSimilarityIndex.like(createFilm.getId(), userId));
+        filmSearchIndex.index(createFilm);
 
         log.info("Фильм {} успешно создан", createFilm.getName());
         return createFilm;
     }
 
+    @Transactional
     public Film update(Film newFilm) {
         log.info("Запрос на обновление фильма c id = {}", newFilm.getId());
 
@@ -149,6 +207,7 @@ public class FilmService {
             throw new ValidationException("Дата релиза не может быть раньше 28 декабря 1895 года");
         }
 
+        boolean replaceLikes = newFilm.getLikes() != null;
         setRatingGenresLikes(newFilm);
 
         Film oldFilm = filmDao.getFilmById(newFilm.getId());
@@ -161,22 +220,48 @@ public class FilmService {
 
         Film updateFilm = filmDao.update(oldFilm);
 
-        filmDao.delLinkFilmGenres(oldFilm.getId());
-        for (Genre genre : newFilm.getGenres()) {
-            filmDao.addLinkFilmGenres(updateFilm.getId(), genre.getId());
-        }
-        updateFilm.setGenres(newFilm.getGenres());
-
-        filmDao.delAllLikes(newFilm.getId());
-        for (Like like : newFilm.getLikes()) {
-            filmDao.addLikes(updateFilm.getId(), like.getUserId());
+        reconcileGenres(updateFilm, newFilm.getGenres());
+        if (replaceLikes) {
+            reconcileLikes(updateFilm, newFilm.getLikes());
         }
-        updateFilm.setLikes(newFilm.getLikes());
+        popularityLeaderboard.assign(updateFilm);
+        filmSearchIndex.index(updateFilm);
 
         log.info("Фильм с id = {} успешно обновлён", updateFilm.getId());
         return updateFilm;
     }
 
+    @Transactional
+    public Film patch(Long filmId, Film changes) {
+        log.info("Запрос на частичное обновление фильма c id = {}", filmId);
+
+        validatePatch(changes);
+
+        Film film = filmDao.getFilmById(filmId);
+        if (film == null) {
+            log.warn("Фильм с id = {} не найден", filmId);
+            throw new NotFoundException("Фильм не найден");
+        }
+
+        if (changes.getRatingMpa() != null) {
+            changes.setRatingMpa(findRating(changes.getRatingMpa().getId()));
+        }
+
+        Film patchFilm = filmDao.patch(film, changes);
+
+        if (changes.getGenres() != null) {
+            reconcileGenres(patchFilm, resolveGenres(changes.getGenres()));
+        }
+        if (changes.getLikes() != null) {
+            reconcileLikes(patchFilm, changes.getLikes());
+        }
+        popularityLeaderboard.assign(patchFilm);
+        filmSearchIndex.index(patchFilm);
+
+        log.info("Фильм с id = {} успешно обновлён частично", filmId);
+        return patchFilm;
+    }
+
     public Film delete(Long filmId) {
         log.info("Запрос на удаление фильма с id = {}", filmId);
 
@@ -191,6 +276,9 @@ public class FilmService {
             log.warn("Ошибка DAO при удаление фильма с id = {}", film.getId());
             throw new ValidationException("Ошибка при обновлении фильма");
         }
+        popularityLeaderboard.remove(filmId);
+        filmSimilarityIndex.remove(filmId);
+        filmSearchIndex.remove(filmId);
 
         log.info("Фильм с id = {} успешно удален", filmId);
         return deleteFilm;
@@ -199,47 +287,61 @@ public class FilmService {
     public void addLike(Long filmId, Long userId) {
         log.info("Получен запрос от пользователя с id = {} поставить лайк фильму с id = {}", userId, filmId);
 
-        if (filmDao.getFilmById(filmId) == null) {
-            log.warn("Фильм с id = {} не найден", filmId);
-            throw new NotFoundException("Фильм не найден");
+        if (likeWriteBehind.isEnabled()) {
+            requireFilmAndUser(filmId, userId);
+            likeWriteBehind.like(filmId, userId);
+            log.info("Лайк поставлен в очередь на запись");
+            return;
         }
 
-        if (userDao.getUserById(userId) == null) {
-            log.warn("Пользователь с id = {} не найден", userId);
-            throw new NotFoundException("Пользователь не найден");
-        }
-
-        if (filmDao.isLiked(filmId, userId)) {
+        try {
+            filmDao.addLikes(filmId, userId);
+        } catch (DuplicateKeyException e) {
             log.warn("Пользователь с id = {} уже поставил лайк", userId);
             throw new ValidationException("Пользователь уже поставил лайк");
+        } catch (DataIntegrityViolationException e) {
+            requireFilmAndUser(filmId, userId);
+            throw e;
         }
 
-        filmDao.addLikes(filmId, userId);
+        popularityLeaderboard.increment(filmId);
+        filmSimilarityIndex.like(filmId, userId);
         log.info("Лайк успешно добавлен");
     }
 
     public void deleteLike(Long filmId, Long userId) {
         log.info("Получен запрос от пользователя с id = {} удалить лайк фильму с id = {}", userId, filmId);
 
-        if (filmDao.getFilmById(filmId) == null) {
-            log.warn("Фильм с id = {} не найден", filmId);
-            throw new NotFoundException("Фильм не найден");
-        }
-
-        if (userDao.getUserById(userId) == null) {
-            log.warn("Пользователь с id = {} не найден", userId);
-            throw new NotFoundException("Пользователь не найден");
+        if (likeWriteBehind.isEnabled()) {
+            requireFilmAndUser(filmId, userId);
+            likeWriteBehind.unlike(filmId, userId);
+            log.info("Удаление лайка поставлено в очередь на запись");
+            return;
         }
 
-        if (!filmDao.isLiked(filmId, userId)) {
+        if (!filmDao.delLike(filmId, userId)) {
+            requireFilmAndUser(filmId, userId);
             log.warn("Лайк от пользователя с id = {} не найден", userId);
             throw new ValidationException("Нельзя удалить лайк, которого нет");
         }
 
-        filmDao.delLike(filmId, userId);
+        popularityLeaderboard.decrement(filmId);
+        filmSimilarityIndex.invalidate(filmId);
         log.info("Лайк успешно удален");
     }
 
+    private void requireFilmAndUser(Long filmId, Long userId) {
+        if (!filmDao.filmExists(filmId)) {
+            log.warn("Фильм с id = {} не найден", filmId);
+            throw new NotFoundException("Фильм не найден");
+        }
+
+        if (!userDao.userExists(userId)) {
+            log.warn("Пользователь с id = {} не найден", userId);
+            throw new NotFoundException("Пользователь не найден");
+        }
+    }
+
     private RatingMpa customRatingMpa() {
         return RatingMpa.builder()
                 .id(1L)
@@ -247,32 +349,124 @@ public class FilmService {
                 .build();
     }
 
+    private List<Long> genreIds(Film film) {
+        return film.getGenres().stream()
+                .map(Genre::getId)
+                .toList();
+    }
+
+    private List<Long> likeUserIds(Film film) {
+        return film.getLikes().stream()
+                .map(Like::getUserId)
+                .toList();
+    }
+
+    private void validatePatch(Film changes) {
+        Set<ConstraintViolation<Film>> violations = new HashSet<>();
+        validateIfPresent(violations, changes, "name", changes.getName());
+        validateIfPresent(violations, changes, "description", changes.getDescription());
+        validateIfPresent(violations, changes, "duration", changes.getDuration());
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            log.warn("Некорректные поля при частичном обновлении фильма: {}", message);
+            throw new ValidationException(message);
+        }
+
+        if (changes.getReleaseDate() != null && changes.getReleaseDate().isBefore(MIN_DATE_RELEASE)) {
+            log.warn("Попытка задать недопустимую дату релиза: {}", changes.getReleaseDate());
+            throw new ValidationException("Дата релиза не может быть раньше 28 декабря 1895 года");
+        }
+
+        if (changes.getRatingMpa() != null && changes.getRatingMpa().getId() == null) {
+            log.warn("Попытка задать рейтинг без id");
+            throw new ValidationException("Не указан id рейтинга");
+        }
+
+        if (changes.getGenres() != null && changes.getGenres().stream().anyMatch(genre -> genre.getId() == null)) {
+            log.warn("Попытка задать жанр без id");
+            throw new ValidationException("Не указан id жанра");
+        }
+    }
+
+    private void validateIfPresent(Set<ConstraintViolation<Film>> violations, Film changes,
+                                   String property, Object value) {
+        if (value != null) {
+            violations.addAll(validator.validateProperty(changes, property));
+        }
+    }
+
+    private void reconcileGenres(Film film, Set<Genre> genres) {
+        Set<Long> stored = film.getGenres().stream()
+                .map(Genre::getId)
+                .collect(Collectors.toSet());
+        Set<Long> requested = genres.stream()
+                .map(Genre::getId)
+                .collect(Collectors.toSet());
+
+        List<Long> removed = stored.stream().filter(id -> !requested.contains(id)).toList();
+        List<Long> added = requested.stream().filter(id -> !stored.contains(id)).toList();
+        filmDao.delLinkFilmGenres(film.getId(), removed);
+        filmDao.addLinkFilmGenres(film.getId(), added);
+
+        log.debug("Жанры фильма с id = {}: удалено {}, добавлено {}", film.getId(), removed.size(), added.size());
+        film.setGenres(genres);
+    }
+
+    private void reconcileLikes(Film film, Set<Like> likes) {
+        Set<Long> stored = filmDao.getLikesByFilmId(film.getId()).stream()
+                .map(Like::getUserId)
+                .collect(Collectors.toSet());
+        Set<Long> requested = likes.stream()
+                .map(Like::getUserId)
+                .collect(Collectors.toSet());
+
+        List<Long> removed = stored.stream().filter(id -> !requested.contains(id)).toList();
+        List<Long> added = requested.stream().filter(id -> !stored.contains(id)).toList();
+        filmDao.delLikes(film.getId(), removed);
+        filmDao.addLikes(film.getId(), added);
+
+        log.debug("Лайки фильма с id = {}: удалено {}, добавлено {}", film.getId(), removed.size(), added.size());
+        film.setLikeCount((long) requested.size());
+        popularityLeaderboard.set(film.getId(), requested.size());
+        filmSimilarityIndex.invalidate(film.getId());
+    }
+
+    private Set<Genre> resolveGenres(Set<Genre> genres) {
+        List<Genre> sortedGenres = new ArrayList<>();
+        for (Genre genre : genres) {
+            sortedGenres.add(findGenre(genre.getId()));
+        }
+
+        sortedGenres.sort(Comparator.comparingLong(Genre::getId));
+        return new LinkedHashSet<>(sortedGenres);
+    }
+
+    private Genre findGenre(Long genreId) {
+        return referenceDataCache.findGenre(genreId).orElseThrow(() -> {
+            log.warn("Жанр с id = {} не найден", genreId);
+            return new NotFoundException("Жанр не найден");
+        });
+    }
+
+    private RatingMpa findRating(Long ratingId) {
+        return referenceDataCache.findRating(ratingId).orElseThrow(() -> {
+            log.warn("Рейтинг с id = {} не найден", ratingId);
+            return new NotFoundException("Рейтинг не найден");
+        });
+    }
+
     private void setRatingGenresLikes(Film film) {
         film.setRatingMpa(
                 Optional.ofNullable(film.getRatingMpa())
-                        .map(r -> filmDao.getRatingMpaById(r.getId()))
+                        .map(r -> findRating(r.getId()))
                         .orElseGet(this::customRatingMpa)
         );
 
         if (film.getGenres() != null && !film.getGenres().isEmpty()) {
-            List<Genre> sortedGenres = new ArrayList<>();
-            List<Genre> listAllGenre = filmDao.getGenres().stream().toList();
-
-            for (Genre genre : film.getGenres()) {
-                listAllGenre.stream()
-                        .filter(g -> g.getId().equals(genre.getId()))
-                        .findFirst()
-                        .ifPresentOrElse(
-                                sortedGenres::add,
-                                () -> {
-                                    log.warn("Жанр с id = {} не найден", genre.getId());
-                                    throw new NotFoundException("Жанр не найден");
-                                }
-                        );
-            }
-
-            sortedGenres.sort(Comparator.comparingLong(Genre::getId));
-            film.setGenres(new LinkedHashSet<>(sortedGenres));
+            film.setGenres(resolveGenres(film.getGenres()));
         } else {
             film.setGenres(new HashSet<>());
         }
@@ -0,0 +1,219 @@
+package ru.yandex.practicum.filmorate.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.storage.dao.film.FilmDao;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+@Slf4j
+@Component
+public class FilmSimilarityIndex {
+    private final FilmDao filmDao;
+    private final int hashes;
+    private final int bands;
+    private final int rows;
+    private final long[] seeds;
+    private final ConcurrentMap<Long, int[]> signatures = new ConcurrentHashMap<>();
+    private final List<ConcurrentMap<Long, Set<Long>>> buckets;
+    private final Set<Long> dirtyFilms = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public FilmSimilarityIndex(@Qualifier("filmDaoImpl") FilmDao filmDao,
+                               @Value("${filmorate.similar.hashes:64}") int hashes,
+                               @Value("${filmorate.similar.bands:16}") int bands) {
+        if (hashes % bands != 0) {
+            throw new IllegalArgumentException("Количество хеш-функций должно делиться на количество полос");
+        }
+
+        this.filmDao = filmDao;
+        this.hashes = hashes;
+        this.bands = bands;
+        this.rows = hashes / bands;
+        this.seeds = new Random(hashes).longs(hashes).toArray();
+        this.buckets = new ArrayList<>(bands);
+        for (int band = 0; band < bands; band++) {
+            buckets.add(new ConcurrentHashMap<>());
+        }
+    }
+
+    @PostConstruct
+    public synchronized void rebuild() {
+        Map<Long, int[]> built = new HashMap<>();
+        filmDao.streamLikes((filmId, userId) -> add(built.computeIfAbsent(filmId, id -> emptySignature()), userId));
+
+        signatures.keySet().stream()
+                .filter(filmId -> !built.containsKey(filmId))
+                .toList()
+                .forEach(this::remove);
+        built.forEach(this::replace);
+        dirtyFilms.clear();
+        log.info("Индекс похожих фильмов построен для {} фильмов", built.size());
+    }
+
+    @Scheduled(initialDelayString = "${filmorate.similar.refresh-interval-ms:2000}",
+            fixedDelayString = "${filmorate.similar.refresh-interval-ms:2000}")
+    public void refreshDirty() {
+        if (dirtyFilms.isEmpty()) {
+            return;
+        }
+
+        List<Long> filmIds = new ArrayList<>(dirtyFilms);
+        dirtyFilms.removeAll(filmIds);
+        for (Long filmId : filmIds) {
+            int[] before = signatures.get(filmId);
+            int[] signature = emptySignature();
+            Collection<Like> likes = filmDao.filmExists(filmId) ? filmDao.getLikesByFilmId(filmId) : List.of();
+            likes.forEach(like -> add(signature, like.getUserId()));
+            if (!replace(filmId, before, likes.isEmpty() ? null : signature)) {
+                dirtyFilms.add(filmId);
+            }
+        }
+        log.debug("Сигнатуры пересчитаны для {} фильмов", filmIds.size());
+    }
+
+    public void like(long filmId, long userId) {
+        signatures.compute(filmId, (id, current) -> {
+            int[] next = current == null ? emptySignature() : current.clone();
+            add(next, userId);
+            if (current != null && Arrays.equals(current, next)) {
+                return current;
+            }
+            move(id, current, next);
+            return next;
+        });
+    }
+
+    public void invalidate(long filmId) {
+        dirtyFilms.add(filmId);
+    }
+
+    public void remove(long filmId) {
+        signatures.computeIfPresent(filmId, (id, current) -> {
+            move(id, current, null);
+            return null;
+        });
+    }
+
+    public List<Match> similar(long filmId, int limit) {
+        int[] signature = signatures.get(filmId);
+        if (signature == null) {
+            return List.of();
+        }
+
+        Set<Long> candidates = new HashSet<>();
+        for (int band = 0; band < bands; band++) {
+            Set<Long> bucket = buckets.get(band).get(bandKey(signature, band));
+            if (bucket != null) {
+                candidates.addAll(bucket);
+            }
+        }
+        candidates.remove(filmId);
+
+        List<Match> matches = new ArrayList<>(candidates.size());
+        for (Long candidate : candidates) {
+            int[] other = signatures.get(candidate);
+            if (other != null) {
+                matches.add(new Match(candidate, similarity(signature, other)));
+            }
+        }
+        matches.sort(Comparator.comparingDouble(Match::similarity).reversed().thenComparingLong(Match::filmId));
+        return matches.size() > limit ? matches.subList(0, limit) : matches;
+    }
+
+    public int getIndexedFilms() {
+        return signatures.size();
+    }
+
+    private void replace(long filmId, int[] signature) {
+        signatures.compute(filmId, (id, current) -> {
+            move(id, current, signature);
+            return signature;
+        });
+    }
+
+    private boolean replace(long filmId, int[] expected, int[] signature) {
+        boolean[] replaced = new boolean[1];
+        signatures.compute(filmId, (id, current) -> {
+            if (current != expected) {
+                return current;
+            }
+            replaced[0] = true;
+            move(id, current, signature);
+            return signature;
+        });
+        return replaced[0];
+    }
+
+    private void move(long filmId, int[] current, int[] next) {
+        for (int band = 0; band < bands; band++) {
+            long oldKey = current == null ? 0 : bandKey(current, band);
+            long newKey = next == null ? 0 : bandKey(next, band);
+            if (current != null && next != null && oldKey == newKey) {
+                continue;
+            }
+
+            ConcurrentMap<Long, Set<Long>> bandBuckets = buckets.get(band);
+            if (current != null) {
+                bandBuckets.computeIfPresent(oldKey, (key, films) -> {
+                    films.remove(filmId);
+                    return films.isEmpty() ? null : films;
+                });
+            }
+            if (next != null) {
+                bandBuckets.computeIfAbsent(newKey, key -> ConcurrentHashMap.newKeySet()).add(filmId);
+            }
+        }
+    }
+
+    private int[] emptySignature() {
+        int[] signature = new int[hashes];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        return signature;
+    }
+
+    private void add(int[] signature, long userId) {
+        for (int i = 0; i < hashes; i++) {
+            int hash = (int) (mix(userId ^ seeds[i]) >>> 33);
+            if (hash < signature[i]) {
+                signature[i] = hash;
+            }
+        }
+    }
+
+    private long bandKey(int[] signature, int band) {
+        long key = band;
+        for (int i = band * rows; i < (band + 1) * rows; i++) {
+            key = mix(key * 31 + signature[i]);
+        }
+        return key;
+    }
+
+    private double similarity(int[] first, int[] second) {
+        int equal = 0;
+        for (int i = 0; i < hashes; i++) {
+            if (first[i] == second[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / hashes;
+    }
+
+    private static long mix(long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public record Match(long filmId, double similarity) {
+    }
+}
@@ -0,0 +1,409 @@
+package ru.yandex.practicum.filmorate.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.storage.dao.user.UserDao;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+@Slf4j
+@Component
+public class FriendGraphIndex {
+    private final UserDao userDao;
+    private final int compactionThreshold;
+    private final AtomicLong sequence = new AtomicLong();
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private volatile State state = new State(Csr.EMPTY, null, new Overlay());
+
+    @Autowired
+    public FriendGraphIndex(@Qualifier("userDaoImpl") UserDao userDao,
+                            @Value("${filmorate.friends.index.compaction-threshold:10000}") int compactionThreshold) {
+        this.userDao = userDao;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    @PostConstruct
+    public synchronized void rebuild() {
+        swapLock.writeLock().lock();
+        try {
+            CsrBuilder builder = new CsrBuilder();
+            userDao.streamFriendships(builder::add);
+            state = new State(builder.build(), null, new Overlay());
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        log.info("Индекс друзей построен: {} пользователей, {} связей",
+                state.base().userIds().length, state.base().friends().length);
+    }
+
+    @Scheduled(initialDelayString = "${filmorate.friends.index.compaction-interval-ms:10000}",
+            fixedDelayString = "${filmorate.friends.index.compaction-interval-ms:10000}")
+    public void compactIfNeeded() {
+        if (state.live().size() >= compactionThreshold) {
+            compact();
+        }
+    }
+
+    public synchronized void compact() {
+        State frozen;
+        swapLock.writeLock().lock();
+        try {
+            frozen = new State(state.base(), state.live(), new Overlay());
+            state = frozen;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        Csr merged = frozen.merge();
+
+        swapLock.writeLock().lock();
+        try {
+            state = new State(merged, null, state.live());
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        log.info("Индекс друзей уплотнён: {} пользователей, {} связей",
+                merged.userIds().length, merged.friends().length);
+    }
+
+    public long getEdgeCount() {
+        return state.base().friends().length;
+    }
+
+    public int getOverlaySize() {
+        State current = state;
+        return current.live().size() + (current.frozen() == null ? 0 : current.frozen().size());
+    }
+
+    public void addFriend(long userId, long friendId) {
+        write(overlay -> overlay.put(userId, friendId, true, sequence.incrementAndGet()));
+    }
+
+    public void removeFriend(long userId, long friendId) {
+        write(overlay -> overlay.put(userId, friendId, false, sequence.incrementAndGet()));
+    }
+
+    public void clearUser(long userId) {
+        write(overlay -> {
+            State current = state;
+            overlay.clear(userId, current.row(userId, false), current.row(userId, true), sequence.incrementAndGet());
+        });
+    }
+
+    public long[] friends(long userId) {
+        Row row = state.row(userId, false);
+        return row.toArray(0, row.size());
+    }
+
+    public long[] followers(long userId) {
+        Row row = state.row(userId, true);
+        return row.toArray(0, row.size());
+    }
+
+    public long[] friends(long userId, long after, int limit) {
+        Row row = state.row(userId, false);
+        int from = upperBound(row, after);
+        return row.toArray(from, (int) Math.min(row.size(), (long) from + limit));
+    }
+
+    public long[] commonFriends(long firstUserId, long secondUserId) {
+        return commonFriends(firstUserId, secondUserId, 0, Integer.MAX_VALUE);
+    }
+
+    public long[] commonFriends(long firstUserId, long secondUserId, long after, int limit) {
+        State current = state;
+        Row first = current.row(firstUserId, false);
+        Row second = current.row(secondUserId, false);
+
+        long[] common = new long[Math.min(Math.min(first.size(), second.size()), limit)];
+        int size = 0;
+        int i = upperBound(first, after);
+        int j = upperBound(second, after);
+        while (i < first.size() && j < second.size() && size < common.length) {
+            long firstId = first.get(i);
+            long secondId = second.get(j);
+            if (firstId < secondId) {
+                i++;
+            } else if (firstId > secondId) {
+                j++;
+            } else {
+                common[size++] = firstId;
+                i++;
+                j++;
+            }
+        }
+        return size == common.length ? common : Arrays.copyOf(common, size);
+    }
+
+    private void write(Consumer<Overlay> change) {
+        swapLock.readLock().lock();
+        try {
+            change.accept(state.live());
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private static int upperBound(Row row, long value) {
+        int low = 0;
+        int high = row.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (row.get(middle) <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private record State(Csr base, Overlay frozen, Overlay live) {
+        Row row(long userId, boolean incoming) {
+            Row baseRow = base.row(userId, incoming);
+            if (!live.touches(userId, incoming) && (frozen == null || !frozen.touches(userId, incoming))) {
+                return baseRow;
+            }
+
+            long userCleared = cleared(userId);
+            Map<Long, Op> ops = new HashMap<>();
+            if (frozen != null) {
+                frozen.collect(userId, incoming, ops);
+            }
+            live.collect(userId, incoming, ops);
+
+            long[] row = new long[baseRow.size() + ops.size()];
+            int size = 0;
+            for (int i = 0; i < baseRow.size(); i++) {
+                long friendId = baseRow.get(i);
+                if (userCleared == 0 && cleared(friendId) == 0 && !ops.containsKey(friendId)) {
+                    row[size++] = friendId;
+                }
+            }
+            for (Map.Entry<Long, Op> entry : ops.entrySet()) {
+                Op op = entry.getValue();
+                if (op.present() && op.seq() > userCleared && op.seq() > cleared(entry.getKey())) {
+                    row[size++] = entry.getKey();
+                }
+            }
+
+            Arrays.sort(row, 0, size);
+            return new ArrayRow(size == row.length ? row : Arrays.copyOf(row, size));
+        }
+
+        Csr merge() {
+            SortedSet<Long> userIds = new TreeSet<>();
+            for (long userId : base.userIds()) {
+                userIds.add(userId);
+            }
+            userIds.addAll(frozen.rows.keySet());
+
+            State snapshot = new State(base, frozen, new Overlay());
+            CsrBuilder builder = new CsrBuilder();
+            for (long userId : userIds) {
+                Row row = snapshot.row(userId, false);
+                for (int i = 0; i < row.size(); i++) {
+                    builder.add(userId, row.get(i));
+                }
+            }
+            return builder.build();
+        }
+
+        private long cleared(long userId) {
+            long cleared = live.cleared(userId);
+            return frozen == null ? cleared : Math.max(cleared, frozen.cleared(userId));
+        }
+    }
+
+    private interface Row {
+        int size();
+
+        long get(int position);
+
+        default long[] toArray(int from, int to) {
+            long[] ids = new long[Math.max(0, to - from)];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = get(from + i);
+            }
+            return ids;
+        }
+    }
+
+    private record ArrayRow(long[] ids) implements Row {
+        static final ArrayRow EMPTY = new ArrayRow(new long[0]);
+
+        @Override
+        public int size() {
+            return ids.length;
+        }
+
+        @Override
+        public long get(int position) {
+            return ids[position];
+        }
+    }
+
+    private record CsrRow(long[] userIds, int[] edges, int from, int to) implements Row {
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+        @Override
+        public long get(int position) {
+            return userIds[edges[from + position]];
+        }
+    }
+
+    private record Csr(long[] userIds, int[] offsets, int[] friends, int[] reverseOffsets, int[] followers) {
+        static final Csr EMPTY = new Csr(new long[0], new int[]{0}, new int[0], new int[]{0}, new int[0]);
+
+        Row row(long userId, boolean incoming) {
+            int index = Arrays.binarySearch(userIds, userId);
+            if (index < 0) {
+                return ArrayRow.EMPTY;
+            }
+            int[] rowOffsets = incoming ? reverseOffsets : offsets;
+            return new CsrRow(userIds, incoming ? followers : friends, rowOffsets[index], rowOffsets[index + 1]);
+        }
+    }
+
+    private record Op(boolean present, long seq) {
+    }
+
+    private static final class Overlay {
+        private final ConcurrentMap<Long, ConcurrentMap<Long, Op>> rows = new ConcurrentHashMap<>();
+        private final ConcurrentMap<Long, ConcurrentMap<Long, Op>> reverseRows = new ConcurrentHashMap<>();
+        private final ConcurrentMap<Long, Long> cleared = new ConcurrentHashMap<>();
+        private final Set<Long> clearedRows = ConcurrentHashMap.newKeySet();
+        private final Set<Long> clearedReverseRows = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger size = new AtomicInteger();
+
+        void put(long userId, long friendId, boolean present, long seq) {
+            Op op = new Op(present, seq);
+            rows.computeIfAbsent(userId, id -> new ConcurrentHashMap<>())
+                    .merge(friendId, op, (current, next) -> next.seq() > current.seq() ? next : current);
+            reverseRows.computeIfAbsent(friendId, id -> new ConcurrentHashMap<>())
+                    .merge(userId, op, (current, next) -> next.seq() > current.seq() ? next : current);
+            size.incrementAndGet();
+        }
+
+        void clear(long userId, Row friends, Row followers, long seq) {
+            clearedRows.add(userId);
+            clearedReverseRows.add(userId);
+            for (int i = 0; i < friends.size(); i++) {
+                clearedReverseRows.add(friends.get(i));
+            }
+            for (int i = 0; i < followers.size(); i++) {
+                clearedRows.add(followers.get(i));
+            }
+            cleared.merge(userId, seq, Math::max);
+            size.incrementAndGet();
+        }
+
+        boolean touches(long userId, boolean incoming) {
+            if (size.get() == 0) {
+                return false;
+            }
+            return (incoming ? reverseRows : rows).containsKey(userId)
+                    || (incoming ? clearedReverseRows : clearedRows).contains(userId);
+        }
+
+        long cleared(long userId) {
+            return cleared.isEmpty() ? 0 : cleared.getOrDefault(userId, 0L);
+        }
+
+        void collect(long userId, boolean incoming, Map<Long, Op> ops) {
+            Map<Long, Op> row = (incoming ? reverseRows : rows).get(userId);
+            if (row != null) {
+                ops.putAll(row);
+            }
+        }
+
+        int size() {
+            return size.get();
+        }
+    }
+
+    private static final class CsrBuilder {
+        private long[] userIds = new long[16];
+        private int[] offsets = new int[17];
+        private long[] friendIds = new long[16];
+        private int users;
+        private int edges;
+
+        void add(long userId, long friendId) {
+            if (users == 0 || userIds[users - 1] != userId) {
+                if (users == userIds.length) {
+                    userIds = Arrays.copyOf(userIds, users * 2);
+                    offsets = Arrays.copyOf(offsets, users * 2 + 1);
+                }
+                userIds[users] = userId;
+                offsets[users] = edges;
+                users++;
+            }
+            if (edges == friendIds.length) {
+                friendIds = Arrays.copyOf(friendIds, edges * 2);
+            }
+            friendIds[edges++] = friendId;
+        }
+
+        Csr build() {
+            offsets[users] = edges;
+            long[] dictionary = dictionary();
+
+            int[] denseOffsets = new int[dictionary.length + 1];
+            for (int i = 0; i < users; i++) {
+                denseOffsets[Arrays.binarySearch(dictionary, userIds[i]) + 1] = offsets[i + 1] - offsets[i];
+            }
+            for (int i = 0; i < dictionary.length; i++) {
+                denseOffsets[i + 1] += denseOffsets[i];
+            }
+            int[] friends = new int[edges];
+            for (int edge = 0; edge < edges; edge++) {
+                friends[edge] = Arrays.binarySearch(dictionary, friendIds[edge]);
+            }
+
+            int[] reverseOffsets = new int[dictionary.length + 1];
+            for (int friend : friends) {
+                reverseOffsets[friend + 1]++;
+            }
+            for (int i = 0; i < dictionary.length; i++) {
+                reverseOffsets[i + 1] += reverseOffsets[i];
+            }
+            int[] cursor = Arrays.copyOf(reverseOffsets, dictionary.length);
+            int[] followers = new int[edges];
+            for (int user = 0; user < dictionary.length; user++) {
+                for (int edge = denseOffsets[user]; edge < denseOffsets[user + 1]; edge++) {
+                    followers[cursor[friends[edge]]++] = user;
+                }
+            }
+            return new Csr(dictionary, denseOffsets, friends, reverseOffsets, followers);
+        }
+
+        private long[] dictionary() {
+            long[] ids = Arrays.copyOf(friendIds, edges + users);
+            System.arraycopy(userIds, 0, ids, edges, users);
+            Arrays.sort(ids);
+            int size = 0;
+            for (int i = 0; i < ids.length; i++) {
+                if (i == 0 || ids[i] != ids[i - 1]) {
+                    ids[size++] = ids[i];
+                }
+            }
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
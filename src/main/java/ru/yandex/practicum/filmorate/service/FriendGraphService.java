@@ -0,0 +1,280 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.FriendPath;
+import ru.yandex.practicum.filmorate.model.FriendSuggestion;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.dao.user.UserDao;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class FriendGraphService {
+    private static final int DEFAULT_SUGGESTIONS = 10;
+    private static final int MAX_SUGGESTIONS = 100;
+    private static final int DEFAULT_PATH_DEPTH = 6;
+    private static final int MAX_PATH_DEPTH = 12;
+    private static final long ROOT = -1L;
+
+    private final UserDao userDao;
+    private final FriendGraphIndex friendGraphIndex;
+    private final int superNodeDegree;
+    private final int parallelThreshold;
+    private final int pathBudget;
+
+    @Autowired
+    public FriendGraphService(@Qualifier("userDaoImpl") UserDao userDao,
+                              FriendGraphIndex friendGraphIndex,
+                              @Value("${filmorate.friends.suggestions.super-node-degree:5000}") int superNodeDegree,
+                              @Value("${filmorate.friends.suggestions.parallel-threshold:512}") int parallelThreshold,
+                              @Value("${filmorate.friends.path.max-visited:200000}") int pathBudget) {
+        this.userDao = userDao;
+        this.friendGraphIndex = friendGraphIndex;
+        this.superNodeDegree = superNodeDegree;
+        this.parallelThreshold = parallelThreshold;
+        this.pathBudget = pathBudget;
+    }
+
+    public List<FriendSuggestion> getSuggestions(Long userId, Integer limit) {
+        log.info("Запрос рекомендаций друзей для пользователя с id = {}", userId);
+
+        int size = suggestionsLimit(limit);
+        requireUser(userId);
+
+        long[] friends = friendGraphIndex.friends(userId);
+        LongIntCounter mutual = friends.length > parallelThreshold
+                ? ForkJoinPool.commonPool().invoke(new MutualFriendsTask(userId, friends, 0, friends.length))
+                : countMutualFriends(userId, friends, 0, friends.length);
+
+        List<long[]> top = top(mutual, size);
+        Map<Long, User> users = userDao.getUsersByIds(top.stream().map(candidate -> candidate[0]).toList()).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<FriendSuggestion> suggestions = new ArrayList<>(top.size());
+        for (long[] candidate : top) {
+            User user = users.get(candidate[0]);
+            if (user != null) {
+                suggestions.add(new FriendSuggestion(user, (int) candidate[1]));
+            }
+        }
+
+        log.info("Для пользователя с id = {} найдено {} рекомендаций из {} кандидатов",
+                userId, suggestions.size(), mutual.size());
+        return suggestions;
+    }
+
+    public FriendPath findPath(Long fromUserId, Long toUserId, Integer maxDepth) {
+        log.info("Запрос цепочки друзей от пользователя с id = {} до пользователя с id = {}", fromUserId, toUserId);
+
+        int depthLimit = pathDepth(maxDepth);
+        requireUser(fromUserId);
+        requireUser(toUserId);
+        if (fromUserId.equals(toUserId)) {
+            return FriendPath.found(List.of(fromUserId));
+        }
+
+        LongLongMap forwardParents = new LongLongMap(64);
+        LongLongMap backwardParents = new LongLongMap(64);
+        forwardParents.putIfAbsent(fromUserId, ROOT);
+        backwardParents.putIfAbsent(toUserId, ROOT);
+        long[] forwardFrontier = {fromUserId};
+        long[] backwardFrontier = {toUserId};
+
+        for (int depth = 0; forwardFrontier.length > 0 && backwardFrontier.length > 0; depth++) {
+            if (depth == depthLimit) {
+                log.info("Цепочка между пользователями с id = {} и id = {} длиннее {}", fromUserId, toUserId, depthLimit);
+                return FriendPath.of(FriendPath.Status.TOO_FAR);
+            }
+
+            boolean forward = forwardFrontier.length <= backwardFrontier.length;
+            Level level = forward
+                    ? expand(forwardFrontier, forwardParents, backwardParents, false)
+                    : expand(backwardFrontier, backwardParents, forwardParents, true);
+
+            if (level.meet() != ROOT) {
+                List<Long> path = path(level.meet(), forwardParents, backwardParents);
+                log.info("Найдена цепочка длиной {} между пользователями с id = {} и id = {}",
+                        path.size() - 1, fromUserId, toUserId);
+                return FriendPath.found(path);
+            }
+            if (level.next() == null) {
+                log.warn("Поиск цепочки между пользователями с id = {} и id = {} превысил лимит в {} пользователей",
+                        fromUserId, toUserId, pathBudget);
+                return FriendPath.of(FriendPath.Status.BUDGET_EXCEEDED);
+            }
+
+            if (forward) {
+                forwardFrontier = level.next();
+            } else {
+                backwardFrontier = level.next();
+            }
+        }
+
+        log.info("Цепочка между пользователями с id = {} и id = {} не найдена", fromUserId, toUserId);
+        return FriendPath.of(FriendPath.Status.NOT_FOUND);
+    }
+
+    private Level expand(long[] frontier, LongLongMap parents, LongLongMap otherParents, boolean incoming) {
+        long[] next = new long[Math.max(16, frontier.length)];
+        int size = 0;
+        long meet = ROOT;
+        int meetDistance = Integer.MAX_VALUE;
+
+        for (long userId : frontier) {
+            long[] neighbours = incoming ? friendGraphIndex.followers(userId) : friendGraphIndex.friends(userId);
+            for (long neighbour : neighbours) {
+                if (!parents.putIfAbsent(neighbour, userId)) {
+                    continue;
+                }
+
+                if (otherParents.containsKey(neighbour)) {
+                    int distance = distance(otherParents, neighbour);
+                    if (distance < meetDistance) {
+                        meet = neighbour;
+                        meetDistance = distance;
+                    }
+                }
+
+                if (parents.size() + otherParents.size() > pathBudget) {
+                    return new Level(null, meet);
+                }
+                if (size == next.length) {
+                    next = Arrays.copyOf(next, size * 2);
+                }
+                next[size++] = neighbour;
+            }
+        }
+        return new Level(Arrays.copyOf(next, size), meet);
+    }
+
+    private static int distance(LongLongMap parents, long userId) {
+        int distance = 0;
+        for (long id = parents.get(userId, ROOT); id != ROOT; id = parents.get(id, ROOT)) {
+            distance++;
+        }
+        return distance;
+    }
+
+    private static List<Long> path(long meet, LongLongMap forwardParents, LongLongMap backwardParents) {
+        List<Long> path = new ArrayList<>();
+        for (long id = meet; id != ROOT; id = forwardParents.get(id, ROOT)) {
+            path.add(id);
+        }
+        Collections.reverse(path);
+        for (long id = backwardParents.get(meet, ROOT); id != ROOT; id = backwardParents.get(id, ROOT)) {
+            path.add(id);
+        }
+        return path;
+    }
+
+    private LongIntCounter countMutualFriends(long userId, long[] friends, int from, int to) {
+        LongIntCounter mutual = new LongIntCounter(Math.min((to - from) * 16, 1 << 16));
+        for (int i = from; i < to; i++) {
+            long[] friendsOfFriend = friendGraphIndex.friends(friends[i]);
+            if (friendsOfFriend.length > superNodeDegree) {
+                log.debug("Пользователь с id = {} пропущен при подсчёте общих друзей: {} друзей",
+                        friends[i], friendsOfFriend.length);
+                continue;
+            }
+
+            for (long candidate : friendsOfFriend) {
+                if (candidate != userId && Arrays.binarySearch(friends, candidate) < 0) {
+                    mutual.add(candidate, 1);
+                }
+            }
+        }
+        return mutual;
+    }
+
+    private static List<long[]> top(LongIntCounter counter, int size) {
+        Comparator<long[]> order = Comparator.<long[]>comparingLong(candidate -> candidate[1])
+                .thenComparingLong(candidate -> -candidate[0]);
+        PriorityQueue<long[]> heap = new PriorityQueue<>(size + 1, order);
+        counter.forEach((candidate, count) -> {
+            if (heap.size() < size) {
+                heap.add(new long[]{candidate, count});
+            } else if (order.compare(new long[]{candidate, count}, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(new long[]{candidate, count});
+            }
+        });
+
+        List<long[]> top = new ArrayList<>(heap);
+        top.sort(order.reversed());
+        return top;
+    }
+
+    private int suggestionsLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_SUGGESTIONS;
+        }
+        if (limit < 1) {
+            throw new ValidationException("Количество рекомендаций не должно быть меньше 1");
+        }
+        return Math.min(limit, MAX_SUGGESTIONS);
+    }
+
+    private int pathDepth(Integer maxDepth) {
+        if (maxDepth == null) {
+            return DEFAULT_PATH_DEPTH;
+        }
+        if (maxDepth < 1) {
+            throw new ValidationException("Глубина поиска не должна быть меньше 1");
+        }
+        return Math.min(maxDepth, MAX_PATH_DEPTH);
+    }
+
+    private void requireUser(Long userId) {
+        if (!userDao.userExists(userId)) {
+            log.warn("Пользователь с id = {} не найден", userId);
+            throw new NotFoundException("Пользователь с id = " + userId + " не найден");
+        }
+    }
+
+    private record Level(long[] next, long meet) {
+    }
+
+    private class MutualFriendsTask extends RecursiveTask<LongIntCounter> {
+        private final long userId;
+        private final long[] friends;
+        private final int from;
+        private final int to;
+
+        MutualFriendsTask(long userId, long[] friends, int from, int to) {
+            this.userId = userId;
+            this.friends = friends;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected LongIntCounter compute() {
+            if (to - from <= parallelThreshold) {
+                return countMutualFriends(userId, friends, from, to);
+            }
+
+            int middle = (from + to) >>> 1;
+            MutualFriendsTask left = new MutualFriendsTask(userId, friends, from, middle);
+            left.fork();
+            LongIntCounter right = new MutualFriendsTask(userId, friends, middle, to).compute();
+            LongIntCounter merged = left.join();
+            if (merged.size() < right.size()) {
+                right.addAll(merged);
+                return right;
+            }
+            merged.addAll(right);
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package ru.yandex.practicum.filmorate.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.exception.ServiceUnavailableException;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.storage.dao.film.FilmDao;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+public class LikeWriteBehind {
+    private final FilmDao filmDao;
+    private final PopularityLeaderboard popularityLeaderboard;
+    private final FilmSimilarityIndex filmSimilarityIndex;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final BlockingQueue<LikeEvent> queue;
+    private volatile boolean running;
+    private Thread writer;
+
+    @Autowired
+    public LikeWriteBehind(@Qualifier("cachingFilmDao") FilmDao filmDao,
+                           PopularityLeaderboard popularityLeaderboard,
+                           FilmSimilarityIndex filmSimilarityIndex,
+                           @Value("${filmorate.likes.write-behind.enabled:false}") boolean enabled,
+                           @Value("${filmorate.likes.write-behind.capacity:10000}") int capacity,
+                           @Value("${filmorate.likes.write-behind.batch-size:500}") int batchSize,
+                           @Value("${filmorate.likes.write-behind.flush-interval-ms:50}") long flushIntervalMs) {
+        this.filmDao = filmDao;
+        this.popularityLeaderboard = popularityLeaderboard;
+        this.filmSimilarityIndex = filmSimilarityIndex;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        running = true;
+        writer = new Thread(this::run, "like-write-behind");
+        writer.start();
+        log.info("Отложенная запись лайков включена: пакет {} событий или {} мс, очередь {} событий",
+                batchSize, flushIntervalMs, queue.remainingCapacity());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (writer == null) {
+            return;
+        }
+
+        running = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Отложенная запись лайков остановлена, очередь сброшена");
+    }
+
+    public void like(Long filmId, Long userId) {
+        submit(new LikeEvent(filmId, userId, true));
+    }
+
+    public void unlike(Long filmId, Long userId) {
+        submit(new LikeEvent(filmId, userId, false));
+    }
+
+    private void submit(LikeEvent event) {
+        if (!running || !queue.offer(event)) {
+            log.warn("Очередь лайков недоступна или переполнена: {} событий", queue.size());
+            throw new ServiceUnavailableException("Сервис перегружен, повторите запрос позже");
+        }
+    }
+
+    private void run() {
+        List<LikeEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                queue.drainTo(batch);
+                running = false;
+            }
+
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void collect(List<LikeEvent> batch) throws InterruptedException {
+        LikeEvent first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                break;
+            }
+
+            LikeEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<LikeEvent> events) {
+        Map<Like, Boolean> latest = new LinkedHashMap<>();
+        for (LikeEvent event : events) {
+            latest.put(Like.builder().filmId(event.filmId()).userId(event.userId()).build(), event.liked());
+        }
+
+        List<Like> added = new ArrayList<>();
+        List<Like> removed = new ArrayList<>();
+        latest.forEach((like, liked) -> (liked ? added : removed).add(like));
+
+        try {
+            apply(added, removed);
+            log.debug("Записан пакет лайков: {} событий, добавлено {}, удалено {}",
+                    events.size(), added.size(), removed.size());
+        } catch (RuntimeException e) {
+            log.warn("Пакет из {} лайков не записан, повтор по одному: {}", latest.size(), e.getMessage());
+            latest.forEach(this::applyOne);
+        }
+    }
+
+    private void applyOne(Like like, boolean liked) {
+        try {
+            apply(liked ? List.of(like) : List.of(), liked ? List.of() : List.of(like));
+        } catch (RuntimeException e) {
+            log.error("Лайк пользователя с id = {} фильму с id = {} не записан: {}",
+                    like.getUserId(), like.getFilmId(), e.getMessage());
+        }
+    }
+
+    private void apply(List<Like> added, List<Like> removed) {
+        filmDao.applyLikeChanges(added, removed).forEach(popularityLeaderboard::adjust);
+        added.forEach(like -> filmSimilarityIndex.like(like.getFilmId(), like.getUserId()));
+        removed.forEach(like -> filmSimilarityIndex.invalidate(like.getFilmId()));
+    }
+
+    private record LikeEvent(Long filmId, Long userId, boolean liked) {
+    }
+}
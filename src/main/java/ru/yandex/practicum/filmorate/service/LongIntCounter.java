@@ -0,0 +1,81 @@
+package ru.yandex.practicum.filmorate.service;
+
+import java.util.Arrays;
+
+final class LongIntCounter {
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    LongIntCounter(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, 8) * 2 - 1) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    void add(long key, int delta) {
+        int index = slot(keys, key);
+        if (keys[index] == EMPTY) {
+            keys[index] = key;
+            values[index] = delta;
+            if (++size * 2 > keys.length) {
+                grow();
+            }
+        } else {
+            values[index] += delta;
+        }
+    }
+
+    int get(long key) {
+        int index = slot(keys, key);
+        return keys[index] == EMPTY ? 0 : values[index];
+    }
+
+    void addAll(LongIntCounter other) {
+        other.forEach(this::add);
+    }
+
+    void forEach(Entry entry) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                entry.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        Arrays.fill(keys, EMPTY);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int index = slot(keys, oldKeys[i]);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private static int slot(long[] keys, long key) {
+        int mask = keys.length - 1;
+        long hash = key * 0x9E3779B97F4A7C15L;
+        int index = (int) (hash ^ (hash >>> 32)) & mask;
+        while (keys[index] != EMPTY && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    interface Entry {
+        void accept(long key, int value);
+    }
+}
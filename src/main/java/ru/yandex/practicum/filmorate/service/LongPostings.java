@@ -0,0 +1,134 @@
+package ru.yandex.practicum.filmorate.service;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+final class LongPostings {
+    private static final int MIN_DELTA = 16;
+    private static final int MAX_DELTA = 1024;
+
+    private long[] sorted;
+    private long[] added = new long[4];
+    private int addedSize;
+    private long[] removed = new long[4];
+    private int removedSize;
+    private boolean retired;
+
+    LongPostings() {
+        this(new long[0]);
+    }
+
+    private LongPostings(long[] sorted) {
+        this.sorted = sorted;
+    }
+
+    synchronized boolean add(long value) {
+        if (retired) {
+            return false;
+        }
+
+        int index = indexOf(removed, removedSize, value);
+        if (index >= 0) {
+            removed[index] = removed[--removedSize];
+        } else if (Arrays.binarySearch(sorted, value) < 0 && indexOf(added, addedSize, value) < 0) {
+            added = append(added, addedSize++, value);
+        }
+        compactIfFull();
+        return true;
+    }
+
+    synchronized boolean remove(long value) {
+        int index = indexOf(added, addedSize, value);
+        if (index >= 0) {
+            added[index] = added[--addedSize];
+        } else if (Arrays.binarySearch(sorted, value) >= 0 && indexOf(removed, removedSize, value) < 0) {
+            removed = append(removed, removedSize++, value);
+        }
+        compactIfFull();
+
+        if (sorted.length - removedSize + addedSize == 0) {
+            retired = true;
+        }
+        return retired;
+    }
+
+    synchronized void forEach(LongConsumer consumer) {
+        compact();
+        for (long value : sorted) {
+            consumer.accept(value);
+        }
+    }
+
+    private void compactIfFull() {
+        int limit = Math.min(Math.max(sorted.length >>> 3, MIN_DELTA), MAX_DELTA);
+        if (addedSize + removedSize >= limit) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        if (addedSize == 0 && removedSize == 0) {
+            return;
+        }
+
+        Arrays.sort(added, 0, addedSize);
+        Arrays.sort(removed, 0, removedSize);
+        long[] next = new long[sorted.length - removedSize + addedSize];
+        int size = 0;
+        int a = 0;
+        int r = 0;
+        for (long value : sorted) {
+            while (a < addedSize && added[a] < value) {
+                next[size++] = added[a++];
+            }
+            if (r < removedSize && removed[r] == value) {
+                r++;
+            } else {
+                next[size++] = value;
+            }
+        }
+        while (a < addedSize) {
+            next[size++] = added[a++];
+        }
+
+        sorted = next;
+        addedSize = 0;
+        removedSize = 0;
+    }
+
+    private static int indexOf(long[] values, int size, long value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long[] append(long[] values, int size, long value) {
+        long[] target = size == values.length ? Arrays.copyOf(values, size * 2) : values;
+        target[size] = value;
+        return target;
+    }
+
+    static final class Builder {
+        private long[] values = new long[4];
+        private int size;
+
+        void add(long value) {
+            values = append(values, size++, value);
+        }
+
+        LongPostings build() {
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            int distinct = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    sorted[distinct++] = sorted[i];
+                }
+            }
+            return new LongPostings(distinct == sorted.length ? sorted : Arrays.copyOf(sorted, distinct));
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package ru.yandex.practicum.filmorate.service;
+
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.CursorPage;
+
+final class PageRequests {
+    private PageRequests() {
+    }
+
+    static int size(Long after, Integer limit) {
+        if (after != null && after < 0) {
+            throw new ValidationException("Курсор страницы не может быть отрицательным числом");
+        }
+        if (limit != null && limit < 1) {
+            throw new ValidationException("Размер страницы не должен быть меньше 1");
+        }
+        return limit == null ? CursorPage.DEFAULT_LIMIT : Math.min(limit, CursorPage.MAX_LIMIT);
+    }
+
+    static long after(Long after) {
+        return after == null ? 0L : after;
+    }
+}
@@ -0,0 +1,296 @@
+package ru.yandex.practicum.filmorate.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.dao.film.FilmDao;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongUnaryOperator;
+
+@Slf4j
+@Component
+public class PopularityLeaderboard {
+    private static final Comparator<Entry> RANKING_ORDER = Comparator
+            .comparingLong(Entry::likeCount).reversed()
+            .thenComparingLong(Entry::filmId);
+
+    private final FilmDao filmDao;
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentMap<Long, Count> likeCounts = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Entry> ranking = new ConcurrentSkipListSet<>(RANKING_ORDER);
+    private final ConcurrentMap<Long, Set<Segment>> filmSegments = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Segment, SegmentRanking> segmentRankings = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Long> removals = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PopularityLeaderboard(@Qualifier("filmDaoImpl") FilmDao filmDao) {
+        this.filmDao = filmDao;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        Map<Long, Long> counts = filmDao.getLikeCounts();
+        likeCounts.keySet().stream()
+                .filter(filmId -> !counts.containsKey(filmId))
+                .toList()
+                .forEach(this::remove);
+        filmDao.streamFilms(this::assign);
+        counts.forEach(this::set);
+        log.info("Рейтинг популярности построен для {} фильмов в {} сегментах", counts.size(), segmentRankings.size());
+    }
+
+    @Scheduled(initialDelayString = "${filmorate.popular.verify-interval-ms:300000}",
+            fixedDelayString = "${filmorate.popular.verify-interval-ms:300000}")
+    public void verify() {
+        long snapshotVersion = sequence.get();
+        Map<Long, Long> counts = filmDao.getLikeCounts();
+        int mismatches = 0;
+
+        for (Map.Entry<Long, Long> entry : counts.entrySet()) {
+            if (correct(entry.getKey(), entry.getValue(), snapshotVersion)) {
+                mismatches++;
+            }
+        }
+        for (Long filmId : likeCounts.keySet()) {
+            if (!counts.containsKey(filmId) && drop(filmId, snapshotVersion)) {
+                mismatches++;
+            }
+        }
+        removals.values().removeIf(version -> version <= snapshotVersion);
+
+        if (mismatches > 0) {
+            log.warn("Рейтинг популярности расходился с базой данных для {} фильмов и был исправлен", mismatches);
+        } else {
+            log.debug("Рейтинг популярности совпадает с базой данных");
+        }
+    }
+
+    public List<Long> top(int count) {
+        List<Long> filmIds = new ArrayList<>(count);
+        Set<Long> seen = new HashSet<>();
+        for (Entry entry : ranking) {
+            if (filmIds.size() == count) {
+                break;
+            }
+            if (seen.add(entry.filmId())) {
+                filmIds.add(entry.filmId());
+            }
+        }
+        return filmIds;
+    }
+
+    public List<Long> top(int count, Long genreId, Integer year, Long mpaId) {
+        List<Segment> requested = new ArrayList<>(3);
+        if (year != null) {
+            requested.add(new Segment(Segment.Kind.YEAR, year));
+        }
+        if (genreId != null) {
+            requested.add(new Segment(Segment.Kind.GENRE, genreId));
+        }
+        if (mpaId != null) {
+            requested.add(new Segment(Segment.Kind.MPA, mpaId));
+        }
+        if (requested.isEmpty()) {
+            return top(count);
+        }
+
+        Segment narrowest = null;
+        SegmentRanking segmentRanking = null;
+        for (Segment segment : requested) {
+            SegmentRanking candidate = segmentRankings.get(segment);
+            if (candidate == null) {
+                return List.of();
+            }
+            if (segmentRanking == null || candidate.size.get() < segmentRanking.size.get()) {
+                narrowest = segment;
+                segmentRanking = candidate;
+            }
+        }
+
+        List<Segment> rest = new ArrayList<>(requested);
+        rest.remove(narrowest);
+        List<Long> filmIds = new ArrayList<>(count);
+        Set<Long> seen = new HashSet<>();
+        for (Entry entry : segmentRanking.entries) {
+            if (filmIds.size() == count) {
+                break;
+            }
+            Set<Segment> segments = filmSegments.getOrDefault(entry.filmId(), Set.of());
+            if (segments.containsAll(rest) && seen.add(entry.filmId())) {
+                filmIds.add(entry.filmId());
+            }
+        }
+        return filmIds;
+    }
+
+    public void assign(Film film) {
+        Set<Segment> next = segments(film);
+        likeCounts.compute(film.getId(), (id, current) -> {
+            Set<Segment> previous = filmSegments.put(id, next);
+            if (current != null) {
+                Entry entry = new Entry(current.likeCount(), id);
+                unlink(previous, entry);
+                link(next, entry);
+            }
+            return current;
+        });
+    }
+
+    public int getSize() {
+        return likeCounts.size();
+    }
+
+    public long likeCount(Long filmId) {
+        Count count = likeCounts.get(filmId);
+        return count == null ? 0 : count.likeCount();
+    }
+
+    public void set(Long filmId, long likeCount) {
+        update(filmId, current -> likeCount);
+    }
+
+    public void increment(Long filmId) {
+        update(filmId, current -> current + 1);
+    }
+
+    public void decrement(Long filmId) {
+        update(filmId, current -> current - 1);
+    }
+
+    public void adjust(Long filmId, long delta) {
+        update(filmId, current -> current + delta);
+    }
+
+    public void remove(Long filmId) {
+        removals.put(filmId, sequence.incrementAndGet());
+        likeCounts.computeIfPresent(filmId, this::detach);
+        filmSegments.remove(filmId);
+    }
+
+    private void update(Long filmId, LongUnaryOperator change) {
+        likeCounts.compute(filmId, (id, current) ->
+                move(id, current, Math.max(0, change.applyAsLong(current == null ? 0 : current.likeCount()))));
+        relinkIfMissing(filmId);
+    }
+
+    private boolean correct(Long filmId, long likeCount, long snapshotVersion) {
+        boolean[] corrected = new boolean[1];
+        likeCounts.compute(filmId, (id, current) -> {
+            if (current != null && (current.likeCount() == likeCount || current.version() > snapshotVersion)) {
+                return current;
+            }
+            if (current == null && removals.getOrDefault(id, 0L) > snapshotVersion) {
+                return null;
+            }
+            corrected[0] = true;
+            return move(id, current, likeCount);
+        });
+        if (corrected[0]) {
+            relinkIfMissing(filmId);
+        }
+        return corrected[0];
+    }
+
+    private boolean drop(Long filmId, long snapshotVersion) {
+        boolean[] dropped = new boolean[1];
+        likeCounts.computeIfPresent(filmId, (id, current) -> {
+            if (current.version() > snapshotVersion) {
+                return current;
+            }
+            dropped[0] = true;
+            return detach(id, current);
+        });
+        return dropped[0];
+    }
+
+    private void relinkIfMissing(Long filmId) {
+        if (likeCounts.containsKey(filmId) && !filmSegments.containsKey(filmId)) {
+            filmDao.getFilmsByIds(List.of(filmId)).forEach(this::assign);
+        }
+    }
+
+    private Count detach(Long filmId, Count current) {
+        Entry entry = new Entry(current.likeCount(), filmId);
+        ranking.remove(entry);
+        unlink(filmSegments.remove(filmId), entry);
+        return null;
+    }
+
+    private Count move(Long filmId, Count current, long likeCount) {
+        Set<Segment> segments = filmSegments.get(filmId);
+        if (current != null) {
+            Entry previous = new Entry(current.likeCount(), filmId);
+            ranking.remove(previous);
+            unlink(segments, previous);
+        }
+        Entry entry = new Entry(likeCount, filmId);
+        ranking.add(entry);
+        link(segments, entry);
+        return new Count(likeCount, sequence.incrementAndGet());
+    }
+
+    private void link(Set<Segment> segments, Entry entry) {
+        if (segments == null) {
+            return;
+        }
+        for (Segment segment : segments) {
+            SegmentRanking segmentRanking = segmentRankings.computeIfAbsent(segment, key -> new SegmentRanking());
+            if (segmentRanking.entries.add(entry)) {
+                segmentRanking.size.incrementAndGet();
+            }
+        }
+    }
+
+    private void unlink(Set<Segment> segments, Entry entry) {
+        if (segments == null) {
+            return;
+        }
+        for (Segment segment : segments) {
+            SegmentRanking segmentRanking = segmentRankings.get(segment);
+            if (segmentRanking != null && segmentRanking.entries.remove(entry)) {
+                segmentRanking.size.decrementAndGet();
+            }
+        }
+    }
+
+    private static Set<Segment> segments(Film film) {
+        Set<Segment> segments = new HashSet<>();
+        if (film.getReleaseDate() != null) {
+            segments.add(new Segment(Segment.Kind.YEAR, film.getReleaseDate().getYear()));
+        }
+        if (film.getRatingMpa() != null && film.getRatingMpa().getId() != null) {
+            segments.add(new Segment(Segment.Kind.MPA, film.getRatingMpa().getId()));
+        }
+        if (film.getGenres() != null) {
+            film.getGenres().forEach(genre -> segments.add(new Segment(Segment.Kind.GENRE, genre.getId())));
+        }
+        return Set.copyOf(segments);
+    }
+
+    private record Entry(long likeCount, long filmId) {
+    }
+
+    private record Count(long likeCount, long version) {
+    }
+
+    private static final class SegmentRanking {
+        private final ConcurrentSkipListSet<Entry> entries = new ConcurrentSkipListSet<>(RANKING_ORDER);
+        private final AtomicInteger size = new AtomicInteger();
+    }
+
+    private record Segment(Kind kind, long value) {
+        private enum Kind {
+            GENRE, YEAR, MPA
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package ru.yandex.practicum.filmorate.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.RatingMpa;
+import ru.yandex.practicum.filmorate.storage.dao.film.FilmDao;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+@Slf4j
+@Component
+public class ReferenceDataCache {
+    private final FilmDao filmDao;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(
+            new Snapshot(0, Collections.emptyMap(), List.of(), Collections.emptyMap(), List.of()));
+
+    @Autowired
+    public ReferenceDataCache(@Qualifier("filmDaoImpl") FilmDao filmDao) {
+        this.filmDao = filmDao;
+    }
+
+    @PostConstruct
+    @Scheduled(initialDelayString = "${filmorate.dictionary.refresh-interval-ms:600000}",
+            fixedDelayString = "${filmorate.dictionary.refresh-interval-ms:600000}")
+    public void reload() {
+        Collection<Genre> genres = sorted(filmDao.getGenres(), Genre::getId);
+        Collection<RatingMpa> ratings = sorted(filmDao.getRatings(), RatingMpa::getId);
+        Snapshot next = new Snapshot(
+                snapshot.get().version() + 1,
+                index(genres, Genre::getId),
+                genres,
+                index(ratings, RatingMpa::getId),
+                ratings
+        );
+        snapshot.set(next);
+        log.info("Справочники загружены, версия {}: {} жанров, {} рейтингов",
+                next.version(), next.genres().size(), next.ratings().size());
+    }
+
+    public long getVersion() {
+        return snapshot.get().version();
+    }
+
+    public Collection<Genre> getGenres() {
+        return snapshot.get().genreList();
+    }
+
+    public Optional<Genre> findGenre(Long genreId) {
+        return genreId == null ? Optional.empty() : Optional.ofNullable(snapshot.get().genres().get(genreId));
+    }
+
+    public Collection<RatingMpa> getRatings() {
+        return snapshot.get().ratingList();
+    }
+
+    public Optional<RatingMpa> findRating(Long ratingId) {
+        return ratingId == null ? Optional.empty() : Optional.ofNullable(snapshot.get().ratings().get(ratingId));
+    }
+
+    private static <T> Collection<T> sorted(Collection<T> values, Function<T, Long> idOf) {
+        return values.stream()
+                .sorted(Comparator.comparing(idOf))
+                .toList();
+    }
+
+    private static <T> Map<Long, T> index(Collection<T> values, Function<T, Long> idOf) {
+        Map<Long, T> index = new HashMap<>(values.size() * 2);
+        for (T value : values) {
+            index.put(idOf.apply(value), value);
+        }
+        return Collections.unmodifiableMap(index);
+    }
+
+    private record Snapshot(long version, Map<Long, Genre> genres, Collection<Genre> genreList,
+                            Map<Long, RatingMpa> ratings, Collection<RatingMpa> ratingList) {
+    }
+}
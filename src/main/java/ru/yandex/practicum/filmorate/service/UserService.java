@@ -1,24 +1,31 @@
 package ru.yandex.practicum.filmorate.service;
 
 import io.micrometer.common.util.StringUtils;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
 import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.CursorPage;
 import ru.yandex.practicum.filmorate.model.User;
 import ru.yandex.practicum.filmorate.storage.dao.user.UserDao;
 
 import java.util.*;
+import java.util.stream.Collectors;
 
 @Slf4j
+@Timed(value = "filmorate.service", histogram = true)
 @Service
 public class UserService  {
     private final UserDao userDao;
+    private final FriendGraphIndex friendGraphIndex;
 
     @Autowired
-    public UserService(@Qualifier("userDaoImpl") UserDao userDao) {
+    public UserService(@Qualifier("userDaoImpl") UserDao userDao, FriendGraphIndex friendGraphIndex) {
         this.userDao = userDao;
+        this.friendGraphIndex = friendGraphIndex;
     }
 
     public Collection<User> getUsers() {
@@ -31,19 +38,54 @@ public class UserService  {
         return users;
     }
 
+    public CursorPage<User> getUsers(Long after, Integer limit) {
+        log.info("Запрос страницы пользователей после id = {}, размер страницы {}", after, limit);
+
+        int pageSize = PageRequests.size(after, limit);
+        List<User> users = new ArrayList<>(userDao.getUsers(PageRequests.after(after), pageSize));
+
+        log.info("Найдено {} пользователей на странице", users.size());
+        return CursorPage.of(users, pageSize, User::getId);
+    }
+
     public Collection<User> getFriends(Long userId) {
         log.info("Запрос на список друзей пользователя с id = {}", userId);
 
         User user = userDao.getUserById(userId);
         if (user == null)  log.warn("Пользователь с id = {} не найден", userId);
 
-        Collection<User> friends =  userDao.getFriends(userId);
+        Collection<User> friends = usersWithFriends(friendGraphIndex.friends(userId));
         if (friends.isEmpty()) log.warn("Список друзей пустой");
 
         log.info("У пользователь с id = {} найдено друзей в количестве {}", userId, friends.size());
         return friends;
     }
 
+    public CursorPage<User> getFriends(Long userId, Long after, Integer limit) {
+        log.info("Запрос страницы друзей пользователя с id = {} после id = {}", userId, after);
+
+        int pageSize = PageRequests.size(after, limit);
+        requireUser(userId);
+        List<User> friends = usersWithFriends(friendGraphIndex.friends(userId, PageRequests.after(after), pageSize));
+
+        log.info("У пользователя с id = {} найдено {} друзей на странице", userId, friends.size());
+        return CursorPage.of(friends, pageSize, User::getId);
+    }
+
+    public CursorPage<User> getCommonFriends(Long firstUserId, Long secondUserId, Long after, Integer limit) {
+        log.info("Запрос страницы общих друзей пользователей с id = {} и id = {} после id = {}",
+                firstUserId, secondUserId, after);
+
+        int pageSize = PageRequests.size(after, limit);
+        requireUser(firstUserId);
+        requireUser(secondUserId);
+        List<User> commonFriends = usersWithFriends(
+                friendGraphIndex.commonFriends(firstUserId, secondUserId, PageRequests.after(after), pageSize));
+
+        log.info("Найдено {} общих друзей на странице", commonFriends.size());
+        return CursorPage.of(commonFriends, pageSize, User::getId);
+    }
+
     public Collection<User> getCommonFriends(Long firstUserId, Long secondUserId) {
         log.info("Запрос на общих друзей между пользователями с id = {} и id = {}", firstUserId, secondUserId);
 
@@ -53,7 +95,7 @@ public class UserService  {
         User secondUser = userDao.getUserById(secondUserId);
         if (secondUser == null)  log.warn("Пользователь с id = {} не найден", secondUserId);
 
-        Collection<User> commonFriends = userDao.getCommonFriends(firstUserId, secondUserId);
+        Collection<User> commonFriends = usersWithFriends(friendGraphIndex.commonFriends(firstUserId, secondUserId));
         if (commonFriends.isEmpty()) {
             log.warn("Общие друзья между пользователями с id = {} и id = {} не найдены", firstUserId, secondUserId);
         } else {
@@ -121,11 +163,13 @@ public class UserService  {
         if (updateUser == null) log.warn("Ошибка при обновлении пользователя с id = {}", newUser.getId());
 
         userDao.deleteAllFriends(oldUser.getId());
+        friendGraphIndex.clearUser(oldUser.getId());
         if (newUser.getFriends() == null || newUser.getFriends().isEmpty()) {
             updateUser.setFriends(new HashSet<>());
         } else {
             newUser.getFriends().forEach(friendId -> {
                 userDao.addLinkFriends(updateUser.getId(), friendId);
+                friendGraphIndex.addFriend(updateUser.getId(), friendId);
             });
             updateUser.setFriends(newUser.getFriends());
         }
@@ -142,6 +186,7 @@ public class UserService  {
 
         User deleteUser = userDao.delete(user);
         if (deleteUser == null) log.warn("Ошибка DAO при удаление пользователя с id = {}", user.getId());
+        friendGraphIndex.clearUser(userId);
 
         log.info("Пользователь с id = {} успешно удален", userId);
         return deleteUser;
@@ -161,6 +206,7 @@ public class UserService  {
             throw new ValidationException("Добавление в друзья пользователей с одинаковым id не возможно");
         }
         userDao.addLinkFriends(userId, friendId);
+        friendGraphIndex.addFriend(userId, friendId);
 
         log.info("Пользователь с id = {} успешно добавлен в друзья к пользователю с id = {}", friendId, userId);
     }
@@ -179,10 +225,26 @@ public class UserService  {
             throw new ValidationException("Удаление друзей с одинаковым id пользователя не возможно");
         }
         userDao.deleteLinkFriends(userId, friendId);
+        friendGraphIndex.removeFriend(userId, friendId);
 
         log.info("Пользователь с id = {} успешно удален из друзей у пользователю с id = {}", friendId, userId);
     }
 
+    private void requireUser(Long userId) {
+        if (!userDao.userExists(userId)) {
+            log.warn("Пользователь с id = {} не найден", userId);
+            throw new NotFoundException("Пользователь с id = " + userId + " не найден");
+        }
+    }
+
+    private List<User> usersWithFriends(long[] userIds) {
+        List<User> users = userDao.getUsersByIds(Arrays.stream(userIds).boxed().toList());
+        users.forEach(user -> user.setFriends(Arrays.stream(friendGraphIndex.friends(user.getId()))
+                .boxed()
+                .collect(Collectors.toCollection(LinkedHashSet::new))));
+        return users;
+    }
+
     private String nameUser(String name, String login) {
         if (StringUtils.isBlank(name)) {
             log.debug("Имя пользователя пустое, используется login: {}", login);
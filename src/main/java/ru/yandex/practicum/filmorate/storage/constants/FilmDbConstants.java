@@ -2,7 +2,9 @@ package ru.yandex.practicum.filmorate.storage.constants;
 
 import static ru.yandex.practicum.filmorate.storage.constants.FilmGenreDbConstant.*;
 import static ru.yandex.practicum.filmorate.storage.constants.GenreDbConstants.*;
-import static ru.yandex.practicum.filmorate.storage.constants.LikesDbConstants.*;
+import static ru.yandex.practicum.filmorate.storage.constants.LikesDbConstants.LIKES_FILM_ID;
+import static ru.yandex.practicum.filmorate.storage.constants.LikesDbConstants.LIKES_TABLE_NAME;
+import static ru.yandex.practicum.filmorate.storage.constants.LikesDbConstants.LIKES_USER_ID;
 import static ru.yandex.practicum.filmorate.storage.constants.RatingMpaConstants.*;
 
 public class FilmDbConstants {
@@ -20,6 +22,8 @@ public class FilmDbConstants {
 
     public static final String FILM_RATING_ID = "rating_id";
 
+    public static final String FILM_LIKE_COUNT = "like_count";
+
     public static final String FIND_ALL_FILM =
             "SELECT " +
                     "f." + FILM_ID + ", " +
@@ -27,17 +31,83 @@ public class FilmDbConstants {
                     "f." + FILM_DESCRIPTION + ", " +
                     "f." + FILM_RELEASE_DATE + ", " +
                     "f." + FILM_DURATION + ", " +
+                    "f." + FILM_LIKE_COUNT + ", " +
+                    "r." + RATING_ID + ", " +
+                    "r." + RATING_NAME + " " +
+                    "FROM " + FILM_TABLE_NAME + " f " +
+                    "LEFT JOIN " + RATING_MPA_TABLE_NAME + " r ON f." + FILM_RATING_ID + " = r." + RATING_ID + " " +
+                    "ORDER BY f." + FILM_ID;
+
+    public static final String FIND_FILM_PAGE =
+            "SELECT " +
+                    "f." + FILM_ID + ", " +
+                    "f." + FILM_NAME + ", " +
+                    "f." + FILM_DESCRIPTION + ", " +
+                    "f." + FILM_RELEASE_DATE + ", " +
+                    "f." + FILM_DURATION + ", " +
+                    "f." + FILM_LIKE_COUNT + ", " +
+                    "r." + RATING_ID + ", " +
+                    "r." + RATING_NAME + " " +
+                    "FROM " + FILM_TABLE_NAME + " f " +
+                    "LEFT JOIN " + RATING_MPA_TABLE_NAME + " r ON f." + FILM_RATING_ID + " = r." + RATING_ID + " " +
+                    "WHERE f." + FILM_ID + " > ? " +
+                    "ORDER BY f." + FILM_ID + " " +
+                    "LIMIT ?";
+
+    public static final String FIND_POPULAR_FILM =
+            "SELECT " +
+                    "f." + FILM_ID + ", " +
+                    "f." + FILM_NAME + ", " +
+                    "f." + FILM_DESCRIPTION + ", " +
+                    "f." + FILM_RELEASE_DATE + ", " +
+                    "f." + FILM_DURATION + ", " +
+                    "f." + FILM_LIKE_COUNT + ", " +
+                    "r." + RATING_ID + ", " +
+                    "r." + RATING_NAME + " " +
+                    "FROM " + FILM_TABLE_NAME + " f " +
+                    "LEFT JOIN " + RATING_MPA_TABLE_NAME + " r ON f." + FILM_RATING_ID + " = r." + RATING_ID + " " +
+                    "ORDER BY f." + FILM_LIKE_COUNT + " DESC, f." + FILM_ID + " " +
+                    "LIMIT ?";
+
+    public static final String FIND_FILMS_BY_IDS =
+            "SELECT " +
+                    "f." + FILM_ID + ", " +
+                    "f." + FILM_NAME + ", " +
+                    "f." + FILM_DESCRIPTION + ", " +
+                    "f." + FILM_RELEASE_DATE + ", " +
+                    "f." + FILM_DURATION + ", " +
+                    "f." + FILM_LIKE_COUNT + ", " +
+                    "r." + RATING_ID + ", " +
+                    "r." + RATING_NAME + " " +
+                    "FROM " + FILM_TABLE_NAME + " f " +
+                    "LEFT JOIN " + RATING_MPA_TABLE_NAME + " r ON f." + FILM_RATING_ID + " = r." + RATING_ID + " " +
+                    "WHERE f." + FILM_ID + " IN (%s)";
+
+    public static final String EXPORT_FILMS =
+            "SELECT " +
+                    "f." + FILM_ID + ", " +
+                    "f." + FILM_NAME + ", " +
+                    "f." + FILM_DESCRIPTION + ", " +
+                    "f." + FILM_RELEASE_DATE + ", " +
+                    "f." + FILM_DURATION + ", " +
+                    "f." + FILM_LIKE_COUNT + ", " +
                     "r." + RATING_ID + ", " +
                     "r." + RATING_NAME + ", " +
                     "g." + GENRE_ID + ", " +
-                    "g." + GENRE_NAME + ", " +
-                    "l." + LIKES_USER_ID + " " +
+                    "g." + GENRE_NAME + " " +
                     "FROM " + FILM_TABLE_NAME + " f " +
                     "LEFT JOIN " + RATING_MPA_TABLE_NAME + " r ON f." + FILM_RATING_ID + " = r." + RATING_ID + " " +
                     "LEFT JOIN " + FILM_GENRE_TABLE_NAME + " fg ON f." + FILM_ID + " = fg." + FILM_GENRE_FILM_ID + " " +
                     "LEFT JOIN " + GENRE_TABLE_NAME + " g ON fg." + FILM_GENRE_GENRE_ID + " = g." + GENRE_ID + " " +
-                    "LEFT JOIN " + LIKES_TABLE_NAME + " l ON f." + FILM_ID + " = l." + FILM_ID + " " +
-                    "ORDER BY f." + FILM_ID;
+                    "ORDER BY f." + FILM_ID + ", g." + GENRE_ID;
+
+    public static final String FIND_LIKE_COUNTS =
+            "SELECT " +
+                    "f." + FILM_ID + ", " +
+                    "COUNT(l." + LIKES_USER_ID + ") AS " + FILM_LIKE_COUNT + " " +
+                    "FROM " + FILM_TABLE_NAME + " f " +
+                    "LEFT JOIN " + LIKES_TABLE_NAME + " l ON f." + FILM_ID + " = l." + LIKES_FILM_ID + " " +
+                    "GROUP BY f." + FILM_ID;
 
     public static final String FIND_FILM_BY_ID =
             "SELECT f." + FILM_ID + ", " +
@@ -45,6 +115,7 @@ public class FilmDbConstants {
                     "f." + FILM_DESCRIPTION + ", " +
                     "f." + FILM_RELEASE_DATE + ", " +
                     "f." + FILM_DURATION + ", " +
+                    "f." + FILM_LIKE_COUNT + ", " +
                     "r." + RATING_ID + ", " +
                     "r." + RATING_NAME + " " +
                     "FROM " + FILM_TABLE_NAME + " f " +
@@ -86,6 +157,22 @@ public class FilmDbConstants {
                     FILM_RATING_ID + " = ? " +
                     "WHERE film_id = ?";
 
+    public static final String PATCH_FILM =
+            "UPDATE " + FILM_TABLE_NAME + " SET %s WHERE " + FILM_ID + " = ?";
+
+    public static final String UPDATE_LIKE_COUNT =
+            "UPDATE " + FILM_TABLE_NAME + " SET " +
+                    FILM_LIKE_COUNT + " = " + FILM_LIKE_COUNT + " + ? " +
+                    "WHERE " + FILM_ID + " = ?";
+
+    public static final String RESET_LIKE_COUNT =
+            "UPDATE " + FILM_TABLE_NAME + " SET " +
+                    FILM_LIKE_COUNT + " = 0 " +
+                    "WHERE " + FILM_ID + " = ?";
+
+    public static final String FILM_EXISTS =
+            "SELECT COUNT(*) FROM " + FILM_TABLE_NAME + " WHERE " + FILM_ID + " = ?";
+
     public static final String DELETE_FILM =
             "DELETE FROM " + FILM_TABLE_NAME + " WHERE " +  FILM_ID + " = ?";
 
@@ -16,4 +16,8 @@ public class FilmGenreDbConstant {
 
     public static final String DELETE_FILM_GENRE =
             "DELETE FROM " + FILM_GENRE_TABLE_NAME + " WHERE " + FILM_GENRE_FILM_ID + " = ?";
+
+    public static final String DELETE_FILM_GENRE_BY_ID =
+            "DELETE FROM " + FILM_GENRE_TABLE_NAME + " WHERE " + FILM_GENRE_FILM_ID + " = ? " +
+                    "AND " + FILM_GENRE_GENRE_ID + " = ?";
 }
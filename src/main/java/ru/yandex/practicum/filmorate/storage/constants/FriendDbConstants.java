@@ -15,6 +15,17 @@ public class FriendDbConstants {
     public static final String FIND_FRIENDS_ID =
             "SELECT " + FRIEND_FRIEND_ID + " " + "FROM " + FRIEND_TABLE_NAME + " " + "WHERE " + FRIEND_USER_ID + " = ?";
 
+    public static final String FIND_FRIEND_IDS_BY_USER_IDS =
+            "SELECT " + FRIEND_USER_ID + ", " + FRIEND_FRIEND_ID + " " +
+                    "FROM " + FRIEND_TABLE_NAME + " " +
+                    "WHERE " + FRIEND_USER_ID + " IN (%s) " +
+                    "ORDER BY " + FRIEND_USER_ID + ", " + FRIEND_FRIEND_ID;
+
+    public static final String FIND_ALL_FRIENDSHIPS =
+            "SELECT " + FRIEND_USER_ID + ", " + FRIEND_FRIEND_ID + " " +
+                    "FROM " + FRIEND_TABLE_NAME + " " +
+                    "ORDER BY " + FRIEND_USER_ID + ", " + FRIEND_FRIEND_ID;
+
     public static final String FIND_ALL_FRIENDS_USER =
             "SELECT u.* " +
                     "FROM " + USER_TABLE_NAME + " u " +
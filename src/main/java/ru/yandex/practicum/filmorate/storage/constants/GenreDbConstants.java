@@ -32,4 +32,15 @@ public class GenreDbConstants {
                     "ON fg." + FILM_GENRE_GENRE_ID + " = g." + GENRE_ID + " " +
                     "WHERE fg." + FILM_GENRE_FILM_ID + " = ?";
 
+    public static final String FIND_GENRES_BY_FILM_IDS =
+            "SELECT " +
+                    "fg." + FILM_GENRE_FILM_ID + ", " +
+                    "g." + GENRE_ID + ", " +
+                    "g." + GENRE_NAME + " " +
+                    "FROM " + FILM_GENRE_TABLE_NAME + " fg " +
+                    "JOIN " + GENRE_TABLE_NAME + " g " +
+                    "ON fg." + FILM_GENRE_GENRE_ID + " = g." + GENRE_ID + " " +
+                    "WHERE fg." + FILM_GENRE_FILM_ID + " IN (%s) " +
+                    "ORDER BY fg." + FILM_GENRE_FILM_ID + ", g." + GENRE_ID;
+
 }
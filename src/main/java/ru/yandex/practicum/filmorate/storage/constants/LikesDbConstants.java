@@ -1,5 +1,10 @@
 package ru.yandex.practicum.filmorate.storage.constants;
 
+import static ru.yandex.practicum.filmorate.storage.constants.FilmDbConstants.FILM_ID;
+import static ru.yandex.practicum.filmorate.storage.constants.FilmDbConstants.FILM_TABLE_NAME;
+import static ru.yandex.practicum.filmorate.storage.constants.UserDbConstants.USER_ID;
+import static ru.yandex.practicum.filmorate.storage.constants.UserDbConstants.USER_TABLE_NAME;
+
 public class LikesDbConstants {
     public static final String LIKES_TABLE_NAME = "likes";
 
@@ -19,6 +24,23 @@ public class LikesDbConstants {
                     "FROM " + LIKES_TABLE_NAME + " " +
                     "WHERE " + LIKES_FILM_ID + " = ?";
 
+    public static final String FIND_LIKES_PAGE =
+            "SELECT " +
+                    LIKES_FILM_ID + ", " +
+                    LIKES_USER_ID + " " +
+                    "FROM " + LIKES_TABLE_NAME + " " +
+                    "WHERE " + LIKES_FILM_ID + " = ? " +
+                    "AND " + LIKES_USER_ID + " > ? " +
+                    "ORDER BY " + LIKES_USER_ID + " " +
+                    "LIMIT ?";
+
+    public static final String FIND_ALL_LIKES_BY_USER =
+            "SELECT " +
+                    LIKES_FILM_ID + ", " +
+                    LIKES_USER_ID + " " +
+                    "FROM " + LIKES_TABLE_NAME + " " +
+                    "ORDER BY " + LIKES_USER_ID + ", " + LIKES_FILM_ID;
+
     public static final String INSERT_LIKE =
             "INSERT INTO " +
                     LIKES_TABLE_NAME + " (" +
@@ -26,6 +48,17 @@ public class LikesDbConstants {
                     LIKES_USER_ID + ") " +
                     "VALUES (?, ?)";
 
+    public static final String INSERT_LIKE_IF_ABSENT =
+            "INSERT INTO " +
+                    LIKES_TABLE_NAME + " (" +
+                    LIKES_FILM_ID + ", " +
+                    LIKES_USER_ID + ") " +
+                    "SELECT f." + FILM_ID + ", u." + USER_ID + " " +
+                    "FROM " + FILM_TABLE_NAME + " f, " + USER_TABLE_NAME + " u " +
+                    "WHERE f." + FILM_ID + " = ? AND u." + USER_ID + " = ? " +
+                    "AND NOT EXISTS (SELECT 1 FROM " + LIKES_TABLE_NAME + " l " +
+                    "WHERE l." + LIKES_FILM_ID + " = f." + FILM_ID + " AND l." + LIKES_USER_ID + " = u." + USER_ID + ")";
+
     public static final String DELETE_LIKE =
             "DELETE FROM " + LIKES_TABLE_NAME + " WHERE " + LIKES_FILM_ID + " = ? " + "AND " + LIKES_USER_ID + " = ?";
 
@@ -29,6 +29,28 @@ public class UserDbConstants {
                     "ORDER BY u." + USER_ID;
 
 
+    public static final String FIND_USER_PAGE =
+            "SELECT " +
+                    USER_ID + ", " +
+                    USER_EMAIL + ", " +
+                    USER_LOGIN + ", " +
+                    USER_NAME + ", " +
+                    USER_BIRTHDAY + " " +
+                    "FROM " + USER_TABLE_NAME + " " +
+                    "WHERE " + USER_ID + " > ? " +
+                    "ORDER BY " + USER_ID + " " +
+                    "LIMIT ?";
+
+    public static final String FIND_USERS_BY_IDS =
+            "SELECT " +
+                    USER_ID + ", " +
+                    USER_EMAIL + ", " +
+                    USER_LOGIN + ", " +
+                    USER_NAME + ", " +
+                    USER_BIRTHDAY + " " +
+                    "FROM " + USER_TABLE_NAME + " " +
+                    "WHERE " + USER_ID + " IN (%s)";
+
     public static final String FIND_USER_BY_ID = "SELECT * FROM " + USER_TABLE_NAME + " WHERE " + USER_ID + " = ?";
 
     public static final String INSERT_USER =
@@ -57,4 +79,7 @@ public class UserDbConstants {
 
     public static final String LOGIN_EXISTS =
             "SELECT COUNT(*) FROM " + USER_TABLE_NAME + " WHERE " + USER_LOGIN + " = ?";
+
+    public static final String USER_EXISTS =
+            "SELECT COUNT(*) FROM " + USER_TABLE_NAME + " WHERE " + USER_ID + " = ?";
 }
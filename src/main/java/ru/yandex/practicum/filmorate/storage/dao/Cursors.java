@@ -0,0 +1,33 @@
+package ru.yandex.practicum.filmorate.storage.dao;
+
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.SqlProvider;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public final class Cursors {
+    private Cursors() {
+    }
+
+    public static PreparedStatementCreator forwardOnly(String sql, int fetchSize) {
+        return new ForwardOnly(sql, fetchSize);
+    }
+
+    private record ForwardOnly(String sql, int fetchSize) implements PreparedStatementCreator, SqlProvider {
+        @Override
+        public PreparedStatement createPreparedStatement(Connection connection) throws SQLException {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }
+
+        @Override
+        public String getSql() {
+            return sql;
+        }
+    }
+}
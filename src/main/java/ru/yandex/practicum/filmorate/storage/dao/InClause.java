@@ -0,0 +1,24 @@
+package ru.yandex.practicum.filmorate.storage.dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public final class InClause {
+    public static final int CHUNK_SIZE = 500;
+
+    private InClause() {
+    }
+
+    public static String expand(String sqlTemplate, int size) {
+        return String.format(sqlTemplate, String.join(", ", Collections.nCopies(size, "?")));
+    }
+
+    public static <T> List<List<T>> chunks(List<T> values, int chunkSize) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += chunkSize) {
+            chunks.add(values.subList(from, Math.min(from + chunkSize, values.size())));
+        }
+        return chunks;
+    }
+}
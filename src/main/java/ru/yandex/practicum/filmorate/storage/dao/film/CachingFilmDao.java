@@ -0,0 +1,295 @@
+package ru.yandex.practicum.filmorate.storage.dao.film;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.model.RatingMpa;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+@Slf4j
+@Repository("cachingFilmDao")
+public class CachingFilmDao implements FilmDao {
+    private final FilmDao delegate;
+    private final Cache<Long, Film> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Autowired
+    public CachingFilmDao(@Qualifier("filmDaoImpl") FilmDao delegate,
+                          @Value("${filmorate.films.cache.maximum-size:10000}") long maximumSize,
+                          @Value("${filmorate.films.cache.ttl-ms:60000}") long ttlMs) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    public long getSize() {
+        return cache.estimatedSize();
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    @Scheduled(initialDelayString = "${filmorate.films.cache.stats-log-interval-ms:60000}",
+            fixedDelayString = "${filmorate.films.cache.stats-log-interval-ms:60000}")
+    public void logStats() {
+        CacheStats stats = cache.stats();
+        log.info("Кэш фильмов: {} записей, попаданий {}, промахов {}, вытеснений {}, доля попаданий {}",
+                cache.estimatedSize(), stats.hitCount(), stats.missCount(), stats.evictionCount(),
+                String.format("%.2f", stats.hitRate()));
+    }
+
+    @Override
+    public Collection<Film> getFilms() {
+        return delegate.getFilms();
+    }
+
+    @Override
+    public Collection<Film> getFilms(Long after, Integer limit) {
+        return delegate.getFilms(after, limit);
+    }
+
+    @Override
+    public void streamFilms(Consumer<Film> consumer) {
+        delegate.streamFilms(consumer);
+    }
+
+    @Override
+    public Collection<Film> getPopular(Integer count) {
+        return delegate.getPopular(count);
+    }
+
+    @Override
+    public Collection<Film> getFilmsByIds(List<Long> filmIds) {
+        Map<Long, Film> cached = cache.getAllPresent(filmIds);
+        List<Long> missing = filmIds.stream()
+                .filter(filmId -> !cached.containsKey(filmId))
+                .toList();
+
+        Map<Long, Film> films = new HashMap<>(cached);
+        if (!missing.isEmpty()) {
+            long loadedAt = invalidations.get();
+            for (Film film : delegate.getFilmsByIds(missing)) {
+                cache.put(film.getId(), film);
+                films.put(film.getId(), film);
+            }
+            if (invalidations.get() != loadedAt) {
+                cache.invalidateAll(missing);
+            }
+        }
+
+        return filmIds.stream()
+                .map(films::get)
+                .filter(Objects::nonNull)
+                .map(CachingFilmDao::copy)
+                .toList();
+    }
+
+    @Override
+    public Map<Long, Long> getLikeCounts() {
+        return delegate.getLikeCounts();
+    }
+
+    @Override
+    public void streamLikes(LikeConsumer consumer) {
+        delegate.streamLikes(consumer);
+    }
+
+    @Override
+    public Collection<Like> getLikesByFilmId(Long filmId) {
+        return delegate.getLikesByFilmId(filmId);
+    }
+
+    @Override
+    public Collection<Like> getLikesByFilmId(Long filmId, Long after, Integer limit) {
+        return delegate.getLikesByFilmId(filmId, after, limit);
+    }
+
+    @Override
+    public Collection<Genre> getGenres() {
+        return delegate.getGenres();
+    }
+
+    @Override
+    public Collection<RatingMpa> getRatings() {
+        return delegate.getRatings();
+    }
+
+    @Override
+    public Genre getGenresById(Long genreId) {
+        return delegate.getGenresById(genreId);
+    }
+
+    @Override
+    public RatingMpa getRatingMpaById(Long ratingId) {
+        return delegate.getRatingMpaById(ratingId);
+    }
+
+    @Override
+    public Film getFilmById(Long filmId) {
+        return copy(cache.get(filmId, delegate::getFilmById));
+    }
+
+    @Override
+    public Film create(Film film) {
+        return delegate.create(film);
+    }
+
+    @Override
+    public List<Film> createAll(List<Film> films) {
+        return delegate.createAll(films);
+    }
+
+    @Override
+    public Film update(Film film) {
+        Film updateFilm = delegate.update(film);
+        evict(film.getId());
+        return updateFilm;
+    }
+
+    @Override
+    public Film patch(Film film, Film changes) {
+        Film patchFilm = delegate.patch(film, changes);
+        evict(film.getId());
+        return patchFilm;
+    }
+
+    @Override
+    public Film delete(Film film) {
+        Film deleteFilm = delegate.delete(film);
+        evict(film.getId());
+        return deleteFilm;
+    }
+
+    @Override
+    public boolean filmExists(Long filmId) {
+        return cache.getIfPresent(filmId) != null || delegate.filmExists(filmId);
+    }
+
+    @Override
+    public boolean isLiked(Long filmId, Long userId) {
+        return delegate.isLiked(filmId, userId);
+    }
+
+    @Override
+    public void addLikes(Long filmId, Long userId) {
+        delegate.addLikes(filmId, userId);
+        evict(filmId);
+    }
+
+    @Override
+    public void addLikes(Long filmId, Collection<Long> userIds) {
+        delegate.addLikes(filmId, userIds);
+        evict(filmId);
+    }
+
+    @Override
+    public Map<Long, Long> applyLikeChanges(List<Like> added, List<Like> removed) {
+        Map<Long, Long> deltas = delegate.applyLikeChanges(added, removed);
+        deltas.keySet().forEach(this::evict);
+        return deltas;
+    }
+
+    @Override
+    public void delAllLikes(Long filmId) {
+        delegate.delAllLikes(filmId);
+        evict(filmId);
+    }
+
+    @Override
+    public boolean delLike(Long filmId, Long userId) {
+        boolean deleted = delegate.delLike(filmId, userId);
+        if (deleted) {
+            evict(filmId);
+        }
+        return deleted;
+    }
+
+    @Override
+    public void delLikes(Long filmId, Collection<Long> userIds) {
+        delegate.delLikes(filmId, userIds);
+        evict(filmId);
+    }
+
+    @Override
+    public void addLinkFilmGenres(Long filmId, Long genreId) {
+        delegate.addLinkFilmGenres(filmId, genreId);
+        evict(filmId);
+    }
+
+    @Override
+    public void addLinkFilmGenres(Long filmId, Collection<Long> genreIds) {
+        delegate.addLinkFilmGenres(filmId, genreIds);
+        evict(filmId);
+    }
+
+    @Override
+    public void delLinkFilmGenres(Long filmId) {
+        delegate.delLinkFilmGenres(filmId);
+        evict(filmId);
+    }
+
+    @Override
+    public void delLinkFilmGenres(Long filmId, Collection<Long> genreIds) {
+        delegate.delLinkFilmGenres(filmId, genreIds);
+        evict(filmId);
+    }
+
+    private void evict(Long filmId) {
+        invalidate(filmId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(filmId);
+                }
+            });
+        }
+    }
+
+    private void invalidate(Long filmId) {
+        invalidations.incrementAndGet();
+        cache.invalidate(filmId);
+    }
+
+    private static Film copy(Film film) {
+        if (film == null) {
+            return null;
+        }
+
+        return Film.builder()
+                .id(film.getId())
+                .name(film.getName())
+                .description(film.getDescription())
+                .releaseDate(film.getReleaseDate())
+                .duration(film.getDuration())
+                .ratingMpa(film.getRatingMpa())
+                .genres(new LinkedHashSet<>(film.getGenres()))
+                .likes(new HashSet<>(film.getLikes()))
+                .likeCount(film.getLikeCount())
+                .build();
+    }
+}
@@ -0,0 +1,39 @@
+package ru.yandex.practicum.filmorate.storage.dao.film;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.storage.dao.InClause;
+
+import java.util.*;
+
+import static ru.yandex.practicum.filmorate.storage.constants.FilmGenreDbConstant.FILM_GENRE_FILM_ID;
+import static ru.yandex.practicum.filmorate.storage.constants.GenreDbConstants.*;
+
+@RequiredArgsConstructor
+@Component
+public class FilmAssembler {
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<Film> assemble(List<Film> films) {
+        Map<Long, Film> filmMap = new HashMap<>();
+        for (Film film : films) {
+            film.setGenres(new LinkedHashSet<>());
+            filmMap.put(film.getId(), film);
+        }
+
+        for (List<Long> filmIds : InClause.chunks(new ArrayList<>(filmMap.keySet()), InClause.CHUNK_SIZE)) {
+            jdbcTemplate.query(InClause.expand(FIND_GENRES_BY_FILM_IDS, filmIds.size()), rs -> {
+                Genre genre = Genre.builder()
+                        .id(rs.getLong(GENRE_ID))
+                        .name(rs.getString(GENRE_NAME))
+                        .build();
+                filmMap.get(rs.getLong(FILM_GENRE_FILM_ID)).getGenres().add(genre);
+            }, filmIds.toArray());
+        }
+
+        return films;
+    }
+}
@@ -6,14 +6,29 @@ import ru.yandex.practicum.filmorate.model.Like;
 import ru.yandex.practicum.filmorate.model.RatingMpa;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface FilmDao {
     Collection<Film> getFilms();
 
+    Collection<Film> getFilms(Long after, Integer limit);
+
+    void streamFilms(Consumer<Film> consumer);
+
     Collection<Film> getPopular(Integer count);
 
+    Collection<Film> getFilmsByIds(List<Long> filmIds);
+
+    Map<Long, Long> getLikeCounts();
+
     Collection<Like> getLikesByFilmId(Long filmId);
 
+    Collection<Like> getLikesByFilmId(Long filmId, Long after, Integer limit);
+
+    void streamLikes(LikeConsumer consumer);
+
     Collection<Genre> getGenres();
 
     Collection<RatingMpa> getRatings();
@@ -26,19 +41,39 @@ public interface FilmDao {
 
     Film create(Film film);
 
+    List<Film> createAll(List<Film> films);
+
     Film update(Film film);
 
+    Film patch(Film film, Film changes);
+
     Film delete(Film film);
 
+    boolean filmExists(Long filmId);
+
     boolean isLiked(Long filmId, Long userId);
 
     void addLikes(Long filmId, Long userId);
 
+    void addLikes(Long filmId, Collection<Long> userIds);
+
+    Map<Long, Long> applyLikeChanges(List<Like> added, List<Like> removed);
+
     void delAllLikes(Long filmId);
 
-    void delLike(Long filmId, Long userId);
+    boolean delLike(Long filmId, Long userId);
+
+    void delLikes(Long filmId, Collection<Long> userIds);
 
     void addLinkFilmGenres(Long filmId, Long genreId);
 
+    void addLinkFilmGenres(Long filmId, Collection<Long> genreIds);
+
     void delLinkFilmGenres(Long filmId);
+
+    void delLinkFilmGenres(Long filmId, Collection<Long> genreIds);
+
+    interface LikeConsumer {
+        void accept(long filmId, long userId);
+    }
 }
@@ -1,22 +1,29 @@
 package ru.yandex.practicum.filmorate.storage.dao.film;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.yandex.practicum.filmorate.model.*;
+import ru.yandex.practicum.filmorate.storage.dao.Cursors;
+import ru.yandex.practicum.filmorate.storage.dao.InClause;
 import ru.yandex.practicum.filmorate.storage.mapper.*;
 
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 import static ru.yandex.practicum.filmorate.storage.constants.FilmDbConstants.*;
 import static ru.yandex.practicum.filmorate.storage.constants.FilmGenreDbConstant.DELETE_FILM_GENRE;
+import static ru.yandex.practicum.filmorate.storage.constants.FilmGenreDbConstant.DELETE_FILM_GENRE_BY_ID;
 import static ru.yandex.practicum.filmorate.storage.constants.FilmGenreDbConstant.INSERT_FILM_GENRE;
 import static ru.yandex.practicum.filmorate.storage.constants.GenreDbConstants.*;
 import static ru.yandex.practicum.filmorate.storage.constants.LikesDbConstants.*;
@@ -24,75 +31,91 @@ import static ru.yandex.practicum.filmorate.storage.constants.RatingMpaConstants
 
 @Slf4j
 @RequiredArgsConstructor
+@Timed(value = "filmorate.dao", histogram = true)
 @Repository("filmDaoImpl")
 public class FilmDaoImpl implements FilmDao {
     private final JdbcTemplate jdbcTemplate;
+    private final FilmAssembler filmAssembler;
+
+    @Value("${filmorate.jdbc.batch-size:500}")
+    private int batchSize;
+
+    @Value("${filmorate.jdbc.fetch-size:1000}")
+    private int fetchSize;
 
     @Override
     public Collection<Film> getFilms() {
-        Map<Long, Film> filmMap = new HashMap<>();
+        return filmAssembler.assemble(jdbcTemplate.query(FIND_ALL_FILM, new FilmMapper()));
+    }
+
+    @Override
+    public Collection<Film> getFilms(Long after, Integer limit) {
+        return filmAssembler.assemble(jdbcTemplate.query(FIND_FILM_PAGE, new FilmMapper(), after, limit));
+    }
 
-        jdbcTemplate.query(FIND_ALL_FILM, rs -> {
-            Long filmId = rs.getLong(FILM_ID);
-            Film film = filmMap.computeIfAbsent(filmId, id -> {
-                try {
-                    return Film.builder()
-                            .id(id)
-                            .name(rs.getString(FILM_NAME))
-                            .description(rs.getString(FILM_DESCRIPTION))
-                            .duration(rs.getInt(FILM_DURATION))
-                            .releaseDate(rs.getDate(FILM_RELEASE_DATE).toLocalDate())
-                            .genres(new HashSet<>())
-                            .likes(new HashSet<>())
-                            .build();
-                } catch (SQLException e) {
-                    throw new RuntimeException(e);
+    @Override
+    public void streamFilms(Consumer<Film> consumer) {
+        FilmMapper filmMapper = new FilmMapper();
+        Film[] current = new Film[1];
+
+        jdbcTemplate.query(Cursors.forwardOnly(EXPORT_FILMS, fetchSize), rs -> {
+            long filmId = rs.getLong(FILM_ID);
+            if (current[0] == null || current[0].getId() != filmId) {
+                if (current[0] != null) {
+                    consumer.accept(current[0]);
                 }
-            });
-
-            long ratingId = rs.getLong(RATING_ID);
-            String ratingName = rs.getString(RATING_NAME);
-            if (ratingId > 0 && ratingName != null) {
-                RatingMpa ratingMpa = RatingMpa.builder()
-                        .id(ratingId)
-                        .name(ratingName)
-                        .build();
-                film.setRatingMpa(ratingMpa);
+                current[0] = filmMapper.mapRow(rs, 0);
+                current[0].setGenres(new LinkedHashSet<>());
             }
 
             long genreId = rs.getLong(GENRE_ID);
-            String genreName = rs.getString(GENRE_NAME);
-            if (genreId > 0 && genreName != null) {
-                Genre genre = Genre.builder()
+            if (!rs.wasNull()) {
+                current[0].getGenres().add(Genre.builder()
                         .id(genreId)
-                        .name(genreName)
-                        .build();
-                film.getGenres().add(genre);
-            }
-
-            Long likeUserId = rs.getLong(LIKES_USER_ID);
-            Long likeFilmId = rs.getLong(LIKES_FILM_ID);
-            if (likeUserId > 0 && likeFilmId.equals(film.getId())) {
-                Like like = Like.builder()
-                        .filmId(likeFilmId)
-                        .userId(likeUserId)
-                        .build();
-                film.getLikes().add(like);
-            } else {
-                log.warn("Пропущена запись лайка: filmId={}, userId={}", likeFilmId, likeUserId);
+                        .name(rs.getString(GENRE_NAME))
+                        .build());
             }
         });
 
-        return new ArrayList<>(filmMap.values());
+        if (current[0] != null) {
+            consumer.accept(current[0]);
+        }
     }
 
-
     @Override
     public Collection<Film> getPopular(Integer count) {
-        return getFilms().stream()
-                .sorted(Comparator.comparingInt((Film f) -> f.getLikes().size()).reversed())
-                .limit(count)
-                .collect(Collectors.toList());
+        return filmAssembler.assemble(jdbcTemplate.query(FIND_POPULAR_FILM, new FilmMapper(), count));
+    }
+
+    @Override
+    public Collection<Film> getFilmsByIds(List<Long> filmIds) {
+        Map<Long, Film> filmMap = new HashMap<>();
+        for (List<Long> chunk : InClause.chunks(filmIds, InClause.CHUNK_SIZE)) {
+            jdbcTemplate.query(InClause.expand(FIND_FILMS_BY_IDS, chunk.size()), new FilmMapper(), chunk.toArray())
+                    .forEach(film -> filmMap.put(film.getId(), film));
+        }
+
+        List<Film> films = filmIds.stream()
+                .map(filmMap::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return filmAssembler.assemble(films);
+    }
+
+    @Override
+    public Map<Long, Long> getLikeCounts() {
+        Map<Long, Long> likeCounts = new HashMap<>();
+        jdbcTemplate.query(FIND_LIKE_COUNTS, rs -> {
+            likeCounts.put(rs.getLong(FILM_ID), rs.getLong(FILM_LIKE_COUNT));
+        });
+        return likeCounts;
+    }
+
+    @Override
+    public void streamLikes(LikeConsumer consumer) {
+        jdbcTemplate.query(Cursors.forwardOnly(FIND_ALL_LIKES_BY_USER, fetchSize), rs -> {
+            consumer.accept(rs.getLong(LIKES_FILM_ID), rs.getLong(LIKES_USER_ID));
+        });
     }
 
     @Override
@@ -114,6 +137,11 @@ public class FilmDaoImpl implements FilmDao {
         return jdbcTemplate.query(FIND_LIKES_BY_FILM_ID, new LikeMapper(), filmId);
     }
 
+    @Override
+    public Collection<Like> getLikesByFilmId(Long filmId, Long after, Integer limit) {
+        return jdbcTemplate.query(FIND_LIKES_PAGE, new LikeMapper(), filmId, after, limit);
+    }
+
     @Override
     public Genre getGenresById(Long genreId) {
         return jdbcTemplate.queryForObject(FIND_GENRE_BY_ID, new GenreMapper(), genreId);
@@ -122,8 +150,7 @@ public class FilmDaoImpl implements FilmDao {
     @Override
     public Film getFilmById(Long filmId) {
         Film film = jdbcTemplate.queryForObject(FIND_FILM_BY_ID, new FilmMapper(), filmId);
-        film.setGenres(new HashSet<>(getGenresByFilmId(film.getId())));
-        film.setLikes(new HashSet<>(getLikesByFilmId(film.getId())));
+        film.setGenres(new LinkedHashSet<>(getGenresByFilmId(film.getId())));
         return film;
     }
 
@@ -150,6 +177,49 @@ public class FilmDaoImpl implements FilmDao {
         return film;
     }
 
+    @Override
+    @Transactional
+    public List<Film> createAll(List<Film> films) {
+        if (films.isEmpty()) {
+            return films;
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_FILM, new String[]{FILM_ID}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Film film = films.get(i);
+                        ps.setString(1, film.getName());
+                        ps.setString(2, film.getDescription());
+                        ps.setInt(3, film.getDuration());
+                        ps.setDate(4, java.sql.Date.valueOf(film.getReleaseDate()));
+                        ps.setLong(5, film.getRatingMpa().getId());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return films.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        List<long[]> genreLinks = new ArrayList<>();
+        for (int i = 0; i < films.size(); i++) {
+            Film film = films.get(i);
+            film.setId(((Number) keys.get(i).values().iterator().next()).longValue());
+            film.getGenres().forEach(genre -> genreLinks.add(new long[]{film.getId(), genre.getId()}));
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_FILM_GENRE, genreLinks, batchSize, (ps, link) -> {
+            ps.setLong(1, link[0]);
+            ps.setLong(2, link[1]);
+        });
+        return films;
+    }
+
     @Override
     public Film update(Film film) {
         jdbcTemplate.update(
@@ -164,6 +234,47 @@ public class FilmDaoImpl implements FilmDao {
         return film;
     }
 
+    @Override
+    public Film patch(Film film, Film changes) {
+        List<String> columns = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+
+        if (changes.getName() != null && !changes.getName().equals(film.getName())) {
+            film.setName(changes.getName());
+            columns.add(FILM_NAME);
+            args.add(film.getName());
+        }
+        if (changes.getDescription() != null && !changes.getDescription().equals(film.getDescription())) {
+            film.setDescription(changes.getDescription());
+            columns.add(FILM_DESCRIPTION);
+            args.add(film.getDescription());
+        }
+        if (changes.getDuration() != null && !changes.getDuration().equals(film.getDuration())) {
+            film.setDuration(changes.getDuration());
+            columns.add(FILM_DURATION);
+            args.add(film.getDuration());
+        }
+        if (changes.getReleaseDate() != null && !changes.getReleaseDate().equals(film.getReleaseDate())) {
+            film.setReleaseDate(changes.getReleaseDate());
+            columns.add(FILM_RELEASE_DATE);
+            args.add(java.sql.Date.valueOf(film.getReleaseDate()));
+        }
+        if (changes.getRatingMpa() != null && !changes.getRatingMpa().getId().equals(film.getRatingMpa().getId())) {
+            film.setRatingMpa(changes.getRatingMpa());
+            columns.add(FILM_RATING_ID);
+            args.add(film.getRatingMpa().getId());
+        }
+
+        if (columns.isEmpty()) {
+            return film;
+        }
+
+        String assignments = String.join(" = ?, ", columns) + " = ?";
+        args.add(film.getId());
+        jdbcTemplate.update(String.format(PATCH_FILM, assignments), args.toArray());
+        return film;
+    }
+
     @Override
     public Film delete(Film film) {
         jdbcTemplate.update(DELETE_FILM, film.getId());
@@ -175,6 +286,12 @@ public class FilmDaoImpl implements FilmDao {
         return jdbcTemplate.queryForObject(FIND_RATING, new RatingMpaMapper(), ratingId);
     }
 
+    @Override
+    public boolean filmExists(Long filmId) {
+        Integer count = jdbcTemplate.queryForObject(FILM_EXISTS, Integer.class, filmId);
+        return count > 0;
+    }
+
     @Override
     public boolean isLiked(Long filmId, Long userId) {
         Integer count = jdbcTemplate.queryForObject(IS_LIKE, Integer.class, filmId, userId);
@@ -182,18 +299,78 @@ public class FilmDaoImpl implements FilmDao {
     }
 
     @Override
+    @Transactional
     public void addLikes(Long filmId, Long userId) {
         jdbcTemplate.update(INSERT_LIKE, filmId, userId);
+        jdbcTemplate.update(UPDATE_LIKE_COUNT, 1, filmId);
+    }
+
+    @Override
+    @Transactional
+    public void addLikes(Long filmId, Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+
+        int[][] rows = jdbcTemplate.batchUpdate(INSERT_LIKE, userIds, batchSize, (ps, userId) -> {
+            ps.setLong(1, filmId);
+            ps.setLong(2, userId);
+        });
+        jdbcTemplate.update(UPDATE_LIKE_COUNT, affectedRows(rows), filmId);
+    }
+
+    @Override
+    @Transactional
+    public Map<Long, Long> applyLikeChanges(List<Like> added, List<Like> removed) {
+        Map<Long, Long> deltas = new HashMap<>();
+        collectDeltas(deltas, added, 1, jdbcTemplate.batchUpdate(INSERT_LIKE_IF_ABSENT, added, batchSize,
+                (ps, like) -> {
+                    ps.setLong(1, like.getFilmId());
+                    ps.setLong(2, like.getUserId());
+                }));
+        collectDeltas(deltas, removed, -1, jdbcTemplate.batchUpdate(DELETE_LIKE, removed, batchSize,
+                (ps, like) -> {
+                    ps.setLong(1, like.getFilmId());
+                    ps.setLong(2, like.getUserId());
+                }));
+        deltas.values().removeIf(delta -> delta == 0);
+
+        jdbcTemplate.batchUpdate(UPDATE_LIKE_COUNT, deltas.entrySet(), batchSize, (ps, delta) -> {
+            ps.setLong(1, delta.getValue());
+            ps.setLong(2, delta.getKey());
+        });
+        return deltas;
     }
 
     @Override
+    @Transactional
     public void delAllLikes(Long filmId) {
         jdbcTemplate.update(DELETE_ALL_LIKE, filmId);
+        jdbcTemplate.update(RESET_LIKE_COUNT, filmId);
     }
 
     @Override
-    public void delLike(Long filmId, Long userId) {
-        jdbcTemplate.update(DELETE_LIKE, filmId, userId);
+    @Transactional
+    public boolean delLike(Long filmId, Long userId) {
+        int rows = jdbcTemplate.update(DELETE_LIKE, filmId, userId);
+        if (rows > 0) {
+            jdbcTemplate.update(UPDATE_LIKE_COUNT, -rows, filmId);
+        }
+        return rows > 0;
+    }
+
+    @Override
+    @Transactional
+    public void delLikes(Long filmId, Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+
+        int[][] rows = jdbcTemplate.batchUpdate(DELETE_LIKE, userIds, batchSize, (ps, userId) -> {
+            ps.setLong(1, filmId);
+            ps.setLong(2, userId);
+        });
+        jdbcTemplate.update(UPDATE_LIKE_COUNT, -affectedRows(rows), filmId);
     }
 
     @Override
@@ -201,8 +378,51 @@ public class FilmDaoImpl implements FilmDao {
         jdbcTemplate.update(DELETE_FILM_GENRE, filmId);
     }
 
+    @Override
+    public void delLinkFilmGenres(Long filmId, Collection<Long> genreIds) {
+        if (genreIds.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(DELETE_FILM_GENRE_BY_ID, genreIds, batchSize, (ps, genreId) -> {
+            ps.setLong(1, filmId);
+            ps.setLong(2, genreId);
+        });
+    }
+
     @Override
     public void addLinkFilmGenres(Long filmId, Long genreId) {
         jdbcTemplate.update(INSERT_FILM_GENRE, filmId, genreId);
     }
+
+    @Override
+    public void addLinkFilmGenres(Long filmId, Collection<Long> genreIds) {
+        if (genreIds.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_FILM_GENRE, genreIds, batchSize, (ps, genreId) -> {
+            ps.setLong(1, filmId);
+            ps.setLong(2, genreId);
+        });
+    }
+
+    private static void collectDeltas(Map<Long, Long> deltas, List<Like> likes, int sign, int[][] rows) {
+        int index = 0;
+        for (int[] batch : rows) {
+            for (int row : batch) {
+                if (row != 0) {
+                    deltas.merge(likes.get(index).getFilmId(), (long) sign, Long::sum);
+                }
+                index++;
+            }
+        }
+    }
+
+    private static int affectedRows(int[][] rows) {
+        return Arrays.stream(rows)
+                .flatMapToInt(Arrays::stream)
+                .map(row -> row == Statement.SUCCESS_NO_INFO ? 1 : row)
+                .sum();
+    }
 }
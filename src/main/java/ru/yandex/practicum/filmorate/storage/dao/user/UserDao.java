@@ -3,10 +3,20 @@ package ru.yandex.practicum.filmorate.storage.dao.user;
 import ru.yandex.practicum.filmorate.model.User;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserDao {
     Collection<User> getUsers();
 
+    Collection<User> getUsers(Long after, Integer limit);
+
+    void streamUsers(Consumer<User> consumer);
+
+    void streamFriendships(FriendshipConsumer consumer);
+
+    List<User> getUsersByIds(List<Long> userIds);
+
     Collection<User> getFriends(Long userId);
 
     Collection<User> getCommonFriends(Long firstUserId, Long secondUserId);
@@ -29,4 +39,9 @@ public interface UserDao {
 
     boolean loginExists(User user);
 
+    boolean userExists(Long userId);
+
+    interface FriendshipConsumer {
+        void accept(long userId, long friendId);
+    }
 }
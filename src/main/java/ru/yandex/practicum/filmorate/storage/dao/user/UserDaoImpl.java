@@ -1,12 +1,16 @@
 package ru.yandex.practicum.filmorate.storage.dao.user;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.dao.Cursors;
+import ru.yandex.practicum.filmorate.storage.dao.InClause;
 import ru.yandex.practicum.filmorate.storage.mapper.UserMapper;
 
 import java.sql.Date;
@@ -14,16 +18,21 @@ import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.*;
+import java.util.function.Consumer;
 
 import static ru.yandex.practicum.filmorate.storage.constants.FriendDbConstants.*;
 import static ru.yandex.practicum.filmorate.storage.constants.UserDbConstants.*;
 
 @Slf4j
 @RequiredArgsConstructor
+@Timed(value = "filmorate.dao", histogram = true)
 @Repository("userDaoImpl")
 public class UserDaoImpl implements UserDao {
     private final JdbcTemplate jdbcTemplate;
 
+    @Value("${filmorate.jdbc.fetch-size:1000}")
+    private int fetchSize;
+
     @Override
     public Collection<User> getUsers() {
         Map<Long, User> userMap = new HashMap<>();
@@ -56,23 +65,69 @@ public class UserDaoImpl implements UserDao {
         return new ArrayList<>(userMap.values());
     }
 
+    @Override
+    public Collection<User> getUsers(Long after, Integer limit) {
+        return withFriendIds(jdbcTemplate.query(FIND_USER_PAGE, new UserMapper(), after, limit));
+    }
 
     @Override
-    public Collection<User> getFriends(Long userId) {
-        List<User> users = jdbcTemplate.query(FIND_ALL_FRIENDS_USER, new UserMapper(), userId);
-        for (User user : users) {
-            user.setFriends(new HashSet<>(getFriendsId(user.getId())));
+    public void streamUsers(Consumer<User> consumer) {
+        UserMapper userMapper = new UserMapper();
+        User[] current = new User[1];
+
+        jdbcTemplate.query(Cursors.forwardOnly(FIND_ALL_USER, fetchSize), rs -> {
+            long userId = rs.getLong(USER_ID);
+            if (current[0] == null || current[0].getId() != userId) {
+                if (current[0] != null) {
+                    consumer.accept(current[0]);
+                }
+                current[0] = userMapper.mapRow(rs, 0);
+                current[0].setFriends(new LinkedHashSet<>());
+            }
+
+            long friendId = rs.getLong(FRIEND_FRIEND_ID);
+            if (!rs.wasNull()) {
+                current[0].getFriends().add(friendId);
+            }
+        });
+
+        if (current[0] != null) {
+            consumer.accept(current[0]);
         }
-        return users;
     }
 
     @Override
-    public Collection<User> getCommonFriends(Long firstUserId, Long secondUserId) {
-        List<User> users = jdbcTemplate.query(FIND_COMMON_FRIENDS, new UserMapper(), firstUserId, secondUserId);
-        for (User user : users) {
-            user.setFriends(new HashSet<>(getFriendsId(user.getId())));
+    public void streamFriendships(FriendshipConsumer consumer) {
+        jdbcTemplate.query(Cursors.forwardOnly(FIND_ALL_FRIENDSHIPS, fetchSize), rs -> {
+            consumer.accept(rs.getLong(FRIEND_USER_ID), rs.getLong(FRIEND_FRIEND_ID));
+        });
+    }
+
+    @Override
+    public List<User> getUsersByIds(List<Long> userIds) {
+        Map<Long, User> userMap = new HashMap<>();
+        UserMapper userMapper = new UserMapper();
+        for (List<Long> chunk : InClause.chunks(userIds, InClause.CHUNK_SIZE)) {
+            jdbcTemplate.query(InClause.expand(FIND_USERS_BY_IDS, chunk.size()), rs -> {
+                User user = userMapper.mapRow(rs, 0);
+                userMap.put(user.getId(), user);
+            }, chunk.toArray());
         }
-        return users;
+
+        return userIds.stream()
+                .map(userMap::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    public Collection<User> getFriends(Long userId) {
+        return withFriendIds(jdbcTemplate.query(FIND_ALL_FRIENDS_USER, new UserMapper(), userId));
+    }
+
+    @Override
+    public Collection<User> getCommonFriends(Long firstUserId, Long secondUserId) {
+        return withFriendIds(jdbcTemplate.query(FIND_COMMON_FRIENDS, new UserMapper(), firstUserId, secondUserId));
     }
 
     @Override
@@ -152,6 +207,28 @@ public class UserDaoImpl implements UserDao {
         return count > 0;
     }
 
+    @Override
+    public boolean userExists(Long userId) {
+        Integer count = jdbcTemplate.queryForObject(USER_EXISTS, Integer.class, userId);
+        return count > 0;
+    }
+
+
+    private List<User> withFriendIds(List<User> users) {
+        Map<Long, User> userMap = new HashMap<>();
+        for (User user : users) {
+            user.setFriends(new LinkedHashSet<>());
+            userMap.put(user.getId(), user);
+        }
+
+        List<Long> userIds = new ArrayList<>(userMap.keySet());
+        for (List<Long> chunk : InClause.chunks(userIds, InClause.CHUNK_SIZE)) {
+            jdbcTemplate.query(InClause.expand(FIND_FRIEND_IDS_BY_USER_IDS, chunk.size()), rs -> {
+                userMap.get(rs.getLong(FRIEND_USER_ID)).getFriends().add(rs.getLong(FRIEND_FRIEND_ID));
+            }, chunk.toArray());
+        }
+        return users;
+    }
 
     private Collection<Long> getFriendsId(Long userId) {
         return jdbcTemplate.queryForList(FIND_FRIENDS_ID, Long.class, userId);
@@ -26,6 +26,7 @@ public class FilmMapper implements RowMapper<Film> {
                 .releaseDate(rs.getDate(FILM_RELEASE_DATE).toLocalDate())
                 .duration(rs.getInt(FILM_DURATION))
                 .ratingMpa(ratingMpa)
+                .likeCount(rs.getLong(FILM_LIKE_COUNT))
                 .build();
     }
 }
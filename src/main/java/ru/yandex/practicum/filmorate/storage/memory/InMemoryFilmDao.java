@@ -1,6 +1,8 @@
 package ru.yandex.practicum.filmorate.storage.memory;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Component;
 import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.Genre;
@@ -9,11 +11,29 @@ import ru.yandex.practicum.filmorate.model.RatingMpa;
 import ru.yandex.practicum.filmorate.storage.dao.film.FilmDao;
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Component
 public class InMemoryFilmDao implements FilmDao {
+    private static final List<Genre> GENRES = List.of(
+            Genre.builder().id(1L).name("Комедия").build(),
+            Genre.builder().id(2L).name("Драма").build(),
+            Genre.builder().id(3L).name("Мультфильм").build(),
+            Genre.builder().id(4L).name("Триллер").build(),
+            Genre.builder().id(5L).name("Документальный").build(),
+            Genre.builder().id(6L).name("Боевик").build()
+    );
+
+    private static final List<RatingMpa> RATINGS = List.of(
+            RatingMpa.builder().id(1L).name("G").build(),
+            RatingMpa.builder().id(2L).name("PG").build(),
+            RatingMpa.builder().id(3L).name("PG-13").build(),
+            RatingMpa.builder().id(4L).name("R").build(),
+            RatingMpa.builder().id(5L).name("NC-17").build()
+    );
+
     private final Map<Long, Film> filmMap = new HashMap<>();
 
     @Override
@@ -21,6 +41,22 @@ public class InMemoryFilmDao implements FilmDao {
         return filmMap.values();
     }
 
+    @Override
+    public Collection<Film> getFilms(Long after, Integer limit) {
+        return filmMap.values().stream()
+                .filter(film -> film.getId() > after)
+                .sorted(Comparator.comparingLong(Film::getId))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void streamFilms(Consumer<Film> consumer) {
+        filmMap.values().stream()
+                .sorted(Comparator.comparingLong(Film::getId))
+                .forEach(consumer);
+    }
+
     public Collection<Film> getPopular(Integer count) {
         return filmMap.values().stream()
                 .filter(film -> !film.getLikes().isEmpty())
@@ -29,29 +65,66 @@ public class InMemoryFilmDao implements FilmDao {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public Collection<Film> getFilmsByIds(List<Long> filmIds) {
+        return filmIds.stream()
+                .map(filmMap::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Map<Long, Long> getLikeCounts() {
+        return filmMap.values().stream()
+                .collect(Collectors.toMap(Film::getId, film -> (long) film.getLikes().size()));
+    }
+
+    @Override
+    public void streamLikes(LikeConsumer consumer) {
+        filmMap.values().stream()
+                .flatMap(film -> film.getLikes().stream())
+                .sorted(Comparator.comparingLong(Like::getUserId).thenComparingLong(Like::getFilmId))
+                .forEach(like -> consumer.accept(like.getFilmId(), like.getUserId()));
+    }
+
     @Override
     public Collection<Like> getLikesByFilmId(Long filmId) {
         return filmMap.get(filmId).getLikes();
     }
 
+    @Override
+    public Collection<Like> getLikesByFilmId(Long filmId, Long after, Integer limit) {
+        return filmMap.get(filmId).getLikes().stream()
+                .filter(like -> like.getUserId() > after)
+                .sorted(Comparator.comparingLong(Like::getUserId))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public Collection<Genre> getGenres() {
-        return List.of();
+        return GENRES;
     }
 
     @Override
     public Collection<RatingMpa> getRatings() {
-        return List.of();
+        return RATINGS;
     }
 
     @Override
     public Genre getGenresById(Long genreId) {
-        return null;
+        return GENRES.stream()
+                .filter(genre -> genre.getId().equals(genreId))
+                .findFirst()
+                .orElse(null);
     }
 
     @Override
     public RatingMpa getRatingMpaById(Long ratingId) {
-        return null;
+        return RATINGS.stream()
+                .filter(rating -> rating.getId().equals(ratingId))
+                .findFirst()
+                .orElse(null);
     }
 
     @Override
@@ -66,17 +139,39 @@ public class InMemoryFilmDao implements FilmDao {
         return newFilm;
     }
 
+    @Override
+    public List<Film> createAll(List<Film> films) {
+        films.forEach(this::create);
+        return films;
+    }
+
     @Override
     public Film update(Film film) {
         filmMap.put(film.getId(), film);
         return film;
     }
 
+    @Override
+    public Film patch(Film film, Film changes) {
+        Optional.ofNullable(changes.getName()).ifPresent(film::setName);
+        Optional.ofNullable(changes.getDescription()).ifPresent(film::setDescription);
+        Optional.ofNullable(changes.getDuration()).ifPresent(film::setDuration);
+        Optional.ofNullable(changes.getReleaseDate()).ifPresent(film::setReleaseDate);
+        Optional.ofNullable(changes.getRatingMpa()).ifPresent(film::setRatingMpa);
+        filmMap.put(film.getId(), film);
+        return film;
+    }
+
     @Override
     public Film delete(Film film) {
         return filmMap.remove(film.getId());
     }
 
+    @Override
+    public boolean filmExists(Long filmId) {
+        return filmMap.containsKey(filmId);
+    }
+
     @Override
     public boolean isLiked(Long filmId, Long userId) {
         Like like = Like.builder().filmId(filmId).userId(userId).build();
@@ -86,18 +181,61 @@ public class InMemoryFilmDao implements FilmDao {
     @Override
     public void addLikes(Long filmId, Long userId) {
         Like like = Like.builder().filmId(filmId).userId(userId).build();
-        filmMap.get(filmId).getLikes().add(like);
+        Film film = filmMap.get(filmId);
+        if (film == null) {
+            throw new DataIntegrityViolationException("Фильм с id = " + filmId + " не найден");
+        }
+        if (!film.getLikes().add(like)) {
+            throw new DuplicateKeyException("Лайк пользователя с id = " + userId + " уже существует");
+        }
+        film.setLikeCount((long) film.getLikes().size());
     }
 
     @Override
-    public void delAllLikes(Long filmId) {
+    public void addLikes(Long filmId, Collection<Long> userIds) {
+        userIds.forEach(userId -> addLikes(filmId, userId));
+    }
 
+    @Override
+    public Map<Long, Long> applyLikeChanges(List<Like> added, List<Like> removed) {
+        Map<Long, Long> deltas = new HashMap<>();
+        for (Like like : added) {
+            Film film = filmMap.get(like.getFilmId());
+            if (film != null && film.getLikes().add(like)) {
+                film.setLikeCount((long) film.getLikes().size());
+                deltas.merge(like.getFilmId(), 1L, Long::sum);
+            }
+        }
+        for (Like like : removed) {
+            if (delLike(like.getFilmId(), like.getUserId())) {
+                deltas.merge(like.getFilmId(), -1L, Long::sum);
+            }
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+        return deltas;
     }
 
     @Override
-    public void delLike(Long filmId, Long userId) {
+    public void delAllLikes(Long filmId) {
+        Film film = filmMap.get(filmId);
+        film.getLikes().clear();
+        film.setLikeCount(0L);
+    }
+
+    @Override
+    public boolean delLike(Long filmId, Long userId) {
         Like like = Like.builder().filmId(filmId).userId(userId).build();
-        filmMap.get(filmId).getLikes().remove(like);
+        Film film = filmMap.get(filmId);
+        if (film == null || !film.getLikes().remove(like)) {
+            return false;
+        }
+        film.setLikeCount((long) film.getLikes().size());
+        return true;
+    }
+
+    @Override
+    public void delLikes(Long filmId, Collection<Long> userIds) {
+        userIds.forEach(userId -> delLike(filmId, userId));
     }
 
     @Override
@@ -105,11 +243,21 @@ public class InMemoryFilmDao implements FilmDao {
 
     }
 
+    @Override
+    public void addLinkFilmGenres(Long filmId, Collection<Long> genreIds) {
+
+    }
+
     @Override
     public void delLinkFilmGenres(Long genreId) {
 
     }
 
+    @Override
+    public void delLinkFilmGenres(Long filmId, Collection<Long> genreIds) {
+
+    }
+
     private long getNextId() {
         long currentMaxId = filmMap.keySet()
                 .stream()
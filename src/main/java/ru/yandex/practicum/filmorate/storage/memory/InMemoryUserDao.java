@@ -6,6 +6,7 @@ import ru.yandex.practicum.filmorate.model.User;
 import ru.yandex.practicum.filmorate.storage.dao.user.UserDao;
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -18,6 +19,43 @@ public class InMemoryUserDao implements UserDao {
         return usersMap.values();
     }
 
+    @Override
+    public Collection<User> getUsers(Long after, Integer limit) {
+        return page(usersMap.values(), after, limit);
+    }
+
+    @Override
+    public void streamUsers(Consumer<User> consumer) {
+        usersMap.values().stream()
+                .sorted(Comparator.comparingLong(User::getId))
+                .forEach(consumer);
+    }
+
+    @Override
+    public void streamFriendships(FriendshipConsumer consumer) {
+        usersMap.values().stream()
+                .sorted(Comparator.comparingLong(User::getId))
+                .forEach(user -> user.getFriends().stream()
+                        .sorted()
+                        .forEach(friendId -> consumer.accept(user.getId(), friendId)));
+    }
+
+    @Override
+    public List<User> getUsersByIds(List<Long> userIds) {
+        return userIds.stream()
+                .map(usersMap::get)
+                .filter(Objects::nonNull)
+                .map(user -> User.builder()
+                        .id(user.getId())
+                        .email(user.getEmail())
+                        .login(user.getLogin())
+                        .name(user.getName())
+                        .birthday(user.getBirthday())
+                        .friends(new HashSet<>(user.getFriends()))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
     @Override
     public Collection<User> getFriends(Long userId) {
         return usersMap.get(userId)
@@ -84,12 +122,25 @@ public class InMemoryUserDao implements UserDao {
         return false;
     }
 
+    @Override
+    public boolean userExists(Long userId) {
+        return usersMap.containsKey(userId);
+    }
+
     public boolean emailExists(String email) {
         return usersMap.values().stream().anyMatch(
                 user -> user.getEmail().equalsIgnoreCase(email)
         );
     }
 
+    private Collection<User> page(Collection<User> users, Long after, Integer limit) {
+        return users.stream()
+                .filter(user -> user.getId() > after)
+                .sorted(Comparator.comparingLong(User::getId))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
     private long getNextId() {
         long currentMaxId = usersMap.keySet()
                 .stream()
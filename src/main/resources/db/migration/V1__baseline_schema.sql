@@ -0,0 +1,60 @@
+CREATE TABLE IF NOT EXISTS rating_mpa (
+    rating_id INTEGER NOT NULL GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    rating_name VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS genres (
+    genre_id INTEGER NOT NULL GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    genre_name VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS films (
+    film_id INTEGER NOT NULL GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    film_name VARCHAR(255) NOT NULL,
+    description VARCHAR(200) NOT NULL,
+    duration INTEGER NOT NULL,
+    release_date DATE NOT NULL,
+    rating_id INTEGER NOT NULL REFERENCES rating_mpa(rating_id) ON DELETE RESTRICT
+);
+
+CREATE TABLE IF NOT EXISTS film_genres (
+    film_id INTEGER NOT NULL REFERENCES films(film_id) ON DELETE CASCADE,
+    genre_id INTEGER NOT NULL REFERENCES genres(genre_id) ON DELETE CASCADE,
+    PRIMARY KEY (film_id, genre_id)
+);
+
+CREATE TABLE IF NOT EXISTS users (
+    user_id INTEGER NOT NULL GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_name VARCHAR(255) NOT NULL,
+    login VARCHAR(255) NOT NULL UNIQUE,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    birthday DATE NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS likes (
+    film_id INT NOT NULL REFERENCES films(film_id) ON DELETE CASCADE,
+    user_id INT NOT NULL REFERENCES users(user_id) ON DELETE RESTRICT,
+    PRIMARY KEY (film_id, user_id)
+);
+
+CREATE TABLE IF NOT EXISTS friends (
+    user_id INT NOT NULL REFERENCES users(user_id) ON DELETE CASCADE,
+    friend_id INT NOT NULL REFERENCES users(user_id) ON DELETE CASCADE,
+    status BOOLEAN NOT NULL,
+    PRIMARY KEY (user_id, friend_id)
+);
+
+MERGE INTO rating_mpa (rating_id, rating_name) KEY(rating_id)
+VALUES (1, 'G'),
+       (2, 'PG'),
+       (3, 'PG-13'),
+       (4, 'R'),
+       (5, 'NC-17');
+
+MERGE INTO genres (genre_id, genre_name) KEY(genre_id)
+VALUES (1, 'Комедия'),
+       (2, 'Драма'),
+       (3, 'Мультфильм'),
+       (4, 'Триллер'),
+       (5, 'Документальный'),
+       (6, 'Боевик');
@@ -0,0 +1,3 @@
+CREATE INDEX IF NOT EXISTS likes_user_idx ON likes (user_id, film_id);
+CREATE INDEX IF NOT EXISTS friends_friend_idx ON friends (friend_id, user_id);
+CREATE INDEX IF NOT EXISTS film_genres_genre_idx ON film_genres (genre_id, film_id);
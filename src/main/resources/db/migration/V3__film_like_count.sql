@@ -0,0 +1,5 @@
+ALTER TABLE films ADD COLUMN IF NOT EXISTS like_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE films f SET like_count = (SELECT COUNT(*) FROM likes l WHERE l.film_id = f.film_id);
+
+CREATE INDEX IF NOT EXISTS films_like_count_idx ON films (like_count DESC, film_id);
@@ -1,5 +1,8 @@
 package ru.yandex.practicum.filmorate;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.AfterEach;
@@ -10,16 +13,38 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.CursorPage;
+import ru.yandex.practicum.filmorate.model.ExportFormat;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmTitle;
 import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.ImportReport;
+import ru.yandex.practicum.filmorate.model.Like;
 import ru.yandex.practicum.filmorate.model.RatingMpa;
+import ru.yandex.practicum.filmorate.model.SimilarFilm;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.CatalogExportService;
+import ru.yandex.practicum.filmorate.service.FilmCoOccurrenceRecommender;
+import ru.yandex.practicum.filmorate.service.FilmImportService;
+import ru.yandex.practicum.filmorate.service.FilmRecommendationService;
+import ru.yandex.practicum.filmorate.service.FilmSearchIndex;
+import ru.yandex.practicum.filmorate.service.FilmSearchService;
 import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.FilmSimilarityIndex;
+import ru.yandex.practicum.filmorate.service.PopularityLeaderboard;
 import ru.yandex.practicum.filmorate.service.UserService;
+import ru.yandex.practicum.filmorate.storage.dao.film.CachingFilmDao;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static ru.yandex.practicum.filmorate.storage.constants.LikesDbConstants.FIND_COUNT_LIKES;
@@ -30,7 +55,17 @@ import static ru.yandex.practicum.filmorate.storage.constants.LikesDbConstants.F
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class FilmControllerDaoTest {
     private final FilmService filmService;
+    private final FilmImportService filmImportService;
+    private final FilmRecommendationService filmRecommendationService;
+    private final FilmCoOccurrenceRecommender filmCoOccurrenceRecommender;
+    private final FilmSimilarityIndex filmSimilarityIndex;
+    private final FilmSearchIndex filmSearchIndex;
+    private final FilmSearchService filmSearchService;
+    private final CatalogExportService catalogExportService;
     private final UserService userService;
+    private final PopularityLeaderboard popularityLeaderboard;
+    private final CachingFilmDao cachingFilmDao;
+    private final MeterRegistry meterRegistry;
     private final JdbcTemplate jdbcTemplate;
 
     @AfterEach
@@ -38,7 +73,10 @@ public class FilmControllerDaoTest {
         jdbcTemplate.update("DELETE FROM likes");
         jdbcTemplate.update("DELETE FROM films");
         jdbcTemplate.update("DELETE FROM users");
-
+        popularityLeaderboard.rebuild();
+        cachingFilmDao.invalidateAll();
+        filmSimilarityIndex.rebuild();
+        filmSearchIndex.rebuild();
     }
 
     @Test
@@ -47,6 +85,178 @@ public class FilmControllerDaoTest {
         assertFalse(filmService.getFilms().isEmpty());
     }
 
+    @Test
+    public void testRecommendationsFromCoOccurringLikes() {
+        User user = userService.create(user());
+        User friend = userService.create(friend());
+        Film first = filmService.create(film());
+        Film second = filmService.create(film());
+        Film third = filmService.create(film());
+        filmService.addLike(first.getId(), user.getId());
+        filmService.addLike(second.getId(), user.getId());
+        filmService.addLike(first.getId(), friend.getId());
+        filmService.addLike(second.getId(), friend.getId());
+        filmService.addLike(third.getId(), friend.getId());
+
+        filmCoOccurrenceRecommender.recompute();
+
+        assertEquals(List.of(second.getId(), third.getId()),
+                filmRecommendationService.getRecommendations(first.getId(), 10).stream().map(Film::getId).toList());
+        assertEquals(List.of(second.getId()),
+                filmRecommendationService.getRecommendations(first.getId(), 1).stream().map(Film::getId).toList());
+        assertEquals(1.0, filmCoOccurrenceRecommender.getProgress());
+        assertThrows(NotFoundException.class, () -> filmRecommendationService.getRecommendations(999L, 10));
+    }
+
+    @Test
+    public void testSimilarFilmsFollowLikeEvents() {
+        User user = userService.create(user());
+        User friend = userService.create(friend());
+        Film first = filmService.create(film());
+        Film second = filmService.create(film());
+        filmService.addLike(first.getId(), user.getId());
+        filmService.addLike(first.getId(), friend.getId());
+        filmService.addLike(second.getId(), user.getId());
+        filmService.addLike(second.getId(), friend.getId());
+
+        List<SimilarFilm> similar = filmRecommendationService.getSimilar(first.getId(), 10);
+
+        assertEquals(List.of(second.getId()), similar.stream().map(s -> s.getFilm().getId()).toList());
+        assertEquals(1.0, similar.getFirst().getSimilarity());
+
+        filmService.deleteLike(second.getId(), user.getId());
+        filmService.deleteLike(second.getId(), friend.getId());
+        filmSimilarityIndex.refreshDirty();
+
+        assertTrue(filmRecommendationService.getSimilar(first.getId(), 10).isEmpty());
+    }
+
+    @Test
+    public void testSearchAndAutocompleteFollowFilmChanges() {
+        Film trees = film();
+        trees.setName("Ёлки");
+        trees.setDescription("Новогодняя комедия");
+        Film sequel = film();
+        sequel.setName("Елки 2");
+        sequel.setDescription("Продолжение комедии про ёлки");
+        Film first = filmService.create(trees);
+        Film second = filmService.create(sequel);
+
+        assertEquals(List.of(second.getId(), first.getId()),
+                filmSearchService.search("ЕЛКИ", 10).stream().map(Film::getId).toList());
+        assertEquals(List.of(first.getId(), second.getId()),
+                filmSearchService.autocomplete("ёл", 10).stream().map(FilmTitle::getId).toList());
+        assertEquals(List.of("Елки 2"),
+                filmSearchService.autocomplete("елки 2", 10).stream().map(FilmTitle::getName).toList());
+        assertThrows(ValidationException.class, () -> filmSearchService.search(" ", 10));
+
+        filmService.addLike(second.getId(), userService.create(user()).getId());
+
+        assertEquals(List.of(second.getId()),
+                filmSearchService.autocomplete("ел", 1).stream().map(FilmTitle::getId).toList());
+
+        filmService.delete(second.getId());
+
+        assertEquals(List.of(first.getId()), filmSearchService.search("елки", 10).stream().map(Film::getId).toList());
+    }
+
+    @Test
+    public void testPopularFilmsFilteredBySegment() {
+        User user = userService.create(user());
+        User friend = userService.create(friend());
+        Genre drama = genre();
+        drama.setId(2L);
+
+        Film comedy = film();
+        comedy.setReleaseDate(LocalDate.of(2000, 1, 1));
+        comedy.setGenres(Set.of(genre()));
+        Film dramaFilm = film();
+        dramaFilm.setReleaseDate(LocalDate.of(2000, 12, 31));
+        dramaFilm.setGenres(Set.of(drama));
+        Film lateComedy = film();
+        lateComedy.setReleaseDate(LocalDate.of(2010, 6, 1));
+        lateComedy.setGenres(Set.of(genre()));
+        Film first = filmService.create(comedy);
+        Film second = filmService.create(dramaFilm);
+        Film third = filmService.create(lateComedy);
+
+        filmService.addLike(first.getId(), user.getId());
+        filmService.addLike(first.getId(), friend.getId());
+        filmService.addLike(second.getId(), user.getId());
+
+        assertEquals(List.of(first.getId(), third.getId()),
+                filmService.getPopular(10, 1L, null, null).stream().map(Film::getId).toList());
+        assertEquals(List.of(first.getId(), second.getId()),
+                filmService.getPopular(10, null, 2000, null).stream().map(Film::getId).toList());
+        assertEquals(List.of(third.getId()),
+                filmService.getPopular(10, 1L, 2010, 1L).stream().map(Film::getId).toList());
+        assertTrue(filmService.getPopular(10, null, null, 5L).isEmpty());
+
+        filmService.patch(third.getId(), Film.builder().ratingMpa(null).genres(Set.of(drama)).build());
+
+        assertEquals(List.of(first.getId()),
+                filmService.getPopular(10, 1L, null, null).stream().map(Film::getId).toList());
+        assertEquals(List.of(second.getId(), third.getId()),
+                filmService.getPopular(10, 2L, null, null).stream().map(Film::getId).toList());
+    }
+
+    @Test
+    public void testLeaderboardRelinksSegmentsOfReaddedFilm() {
+        Film comedy = film();
+        comedy.setGenres(Set.of(genre()));
+        Film film = filmService.create(comedy);
+
+        popularityLeaderboard.remove(film.getId());
+        popularityLeaderboard.set(film.getId(), 1);
+
+        assertEquals(List.of(film.getId()), popularityLeaderboard.top(10, 1L, null, 1L));
+
+        popularityLeaderboard.verify();
+
+        assertEquals(List.of(film.getId()), popularityLeaderboard.top(10, 1L, 1895, null));
+        assertEquals(0, popularityLeaderboard.likeCount(film.getId()));
+    }
+
+    @Test
+    public void testQueryAndServiceMetricsAreRecorded() {
+        filmService.create(film());
+        filmService.create(film());
+
+        filmService.getFilms();
+
+        Timer query = meterRegistry.find("filmorate.jdbc.query").tag("query", "FIND_ALL_FILM").timer();
+        DistributionSummary rows = meterRegistry.find("filmorate.jdbc.rows").tag("query", "FIND_ALL_FILM").summary();
+        Timer service = meterRegistry.find("filmorate.service").tag("method", "getFilms").timer();
+        assertNotNull(query);
+        assertNotNull(rows);
+        assertNotNull(service);
+        assertTrue(query.count() > 0);
+        assertTrue(rows.totalAmount() >= 2);
+        assertTrue(service.count() > 0);
+
+        cachingFilmDao.invalidateAll();
+        filmService.getPopular(10);
+
+        assertNotNull(meterRegistry.find("filmorate.jdbc.query").tag("query", "FIND_FILMS_BY_IDS").timer());
+    }
+
+    @Test
+    public void testCreateFilmWithSeedLikes() {
+        User user = userService.create(user());
+        User friend = userService.create(friend());
+        Film film = film();
+        film.setGenres(Set.of(genre()));
+        film.setLikes(Set.of(
+                Like.builder().userId(user.getId()).build(),
+                Like.builder().userId(friend.getId()).build()));
+
+        Film created = filmService.create(film);
+        Film stored = filmService.getFilmById(created.getId());
+
+        assertEquals(2L, stored.getLikeCount());
+        assertEquals(1, stored.getGenres().size());
+    }
+
     @Test
     public void testDescriptionIsLong() {
         Film film = film();
@@ -72,6 +282,153 @@ public class FilmControllerDaoTest {
                 filmService.getFilmById(updateFilm.getId()).getName());
     }
 
+    @Test
+    public void testPatchFilmReconcilesGenresAndLikes() {
+        User user = userService.create(user());
+        User friend = userService.create(friend());
+        Film film = film();
+        film.setGenres(Set.of(genre()));
+        film.setLikes(Set.of(
+                Like.builder().userId(user.getId()).build(),
+                Like.builder().userId(friend.getId()).build()));
+        Film created = filmService.create(film);
+
+        Genre genre2 = genre();
+        genre2.setId(2L);
+        Film changes = Film.builder()
+                .name("patched")
+                .ratingMpa(null)
+                .genres(Set.of(genre2))
+                .likes(Set.of(Like.builder().userId(friend.getId()).build()))
+                .build();
+        filmService.patch(created.getId(), changes);
+
+        Film stored = filmService.getFilmById(created.getId());
+        assertEquals("patched", stored.getName());
+        assertEquals(film.getDescription(), stored.getDescription());
+        assertEquals(List.of(2L), stored.getGenres().stream().map(Genre::getId).toList());
+        assertEquals(1L, stored.getLikeCount());
+        assertEquals(1, jdbcTemplate.queryForObject(FIND_COUNT_LIKES, Integer.class, created.getId()));
+    }
+
+    @Test
+    public void testPatchFilmWithoutLikesKeepsLikes() {
+        User user = userService.create(user());
+        Film film = film();
+        film.setLikes(Set.of(Like.builder().userId(user.getId()).build()));
+        Film created = filmService.create(film);
+
+        Film changes = Film.builder()
+                .duration(150)
+                .ratingMpa(null)
+                .genres(null)
+                .likes(null)
+                .build();
+        filmService.patch(created.getId(), changes);
+
+        Film stored = filmService.getFilmById(created.getId());
+        assertEquals(150, stored.getDuration());
+        assertEquals(1L, stored.getLikeCount());
+    }
+
+    @Test
+    public void testPatchFilmRejectsInvalidFields() {
+        Film created = filmService.create(film());
+
+        assertThrows(ValidationException.class, () -> filmService.patch(created.getId(),
+                Film.builder().name(" ").ratingMpa(null).genres(null).likes(null).build()));
+        assertThrows(ValidationException.class, () -> filmService.patch(created.getId(),
+                Film.builder().description("d".repeat(201)).ratingMpa(null).genres(null).likes(null).build()));
+        assertThrows(ValidationException.class, () -> filmService.patch(created.getId(),
+                Film.builder().ratingMpa(RatingMpa.builder().build()).genres(null).likes(null).build()));
+        assertThrows(ValidationException.class, () -> filmService.patch(created.getId(),
+                Film.builder().ratingMpa(null).genres(Set.of(Genre.builder().build())).likes(null).build()));
+        assertEquals(film().getName(), filmService.getFilmById(created.getId()).getName());
+    }
+
+    @Test
+    public void testFilmCacheServesRepeatedReadsAndInvalidatesOnLike() {
+        Film film = filmService.create(film());
+        User user = userService.create(user());
+
+        filmService.getFilmById(film.getId());
+        long hits = cachingFilmDao.getStats().hitCount();
+        filmService.getFilmById(film.getId());
+        assertEquals(hits + 1, cachingFilmDao.getStats().hitCount());
+
+        filmService.addLike(film.getId(), user.getId());
+
+        assertEquals(1L, filmService.getFilmById(film.getId()).getLikeCount());
+    }
+
+    @Test
+    public void testLikeErrorsAreMappedFromConstraints() {
+        Film film = filmService.create(film());
+        User user = userService.create(user());
+
+        filmService.addLike(film.getId(), user.getId());
+
+        assertThrows(ValidationException.class, () -> filmService.addLike(film.getId(), user.getId()));
+        assertThrows(NotFoundException.class, () -> filmService.addLike(film.getId(), 999L));
+        assertThrows(NotFoundException.class, () -> filmService.addLike(999L, user.getId()));
+        assertThrows(NotFoundException.class, () -> filmService.deleteLike(999L, user.getId()));
+
+        filmService.deleteLike(film.getId(), user.getId());
+
+        assertThrows(ValidationException.class, () -> filmService.deleteLike(film.getId(), user.getId()));
+        assertEquals(0L, filmService.getFilmById(film.getId()).getLikeCount());
+    }
+
+    @Test
+    public void testBulkImportReportsLineErrors() throws IOException {
+        String body = String.join("\n",
+                "{\"name\":\"first\",\"description\":\"d\",\"releaseDate\":\"2000-01-01\",\"duration\":90," +
+                        "\"mpa\":{\"id\":3},\"genres\":[{\"id\":2},{\"id\":1}]}",
+                "{\"name\":\" \",\"description\":\"d\",\"releaseDate\":\"2000-01-01\",\"duration\":90}",
+                "",
+                "{\"name\":\"old\",\"description\":\"d\",\"releaseDate\":\"1800-01-01\",\"duration\":90}",
+                "not json",
+                "{\"name\":\"second\",\"description\":\"d\",\"releaseDate\":\"2001-01-01\",\"duration\":95}");
+
+        ImportReport report = filmImportService.importFilms(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, report.getImported());
+        assertEquals(3, report.getRejected());
+        assertEquals(List.of(2L, 4L, 5L), report.getErrors().stream().map(e -> e.getLine()).toList());
+
+        Film first = filmService.getFilms().stream()
+                .filter(film -> film.getName().equals("first"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(3L, first.getRatingMpa().getId());
+        assertEquals(List.of(1L, 2L), first.getGenres().stream().map(Genre::getId).toList());
+    }
+
+    @Test
+    public void testExportFilmsStreamsOneLinePerFilm() throws IOException {
+        Film first = film();
+        Genre genre2 = genre();
+        genre2.setId(2L);
+        first.setGenres(Set.of(genre(), genre2));
+        first.setDescription("with, comma");
+        filmService.create(first);
+        filmService.create(film());
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        catalogExportService.exportFilms(ExportFormat.CSV, csv);
+        List<String> csvLines = csv.toString(StandardCharsets.UTF_8).lines().toList();
+
+        assertEquals(3, csvLines.size());
+        assertTrue(csvLines.get(1).contains("\"with, comma\""));
+        assertTrue(csvLines.get(1).contains(",1;2,"));
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        catalogExportService.exportFilms(ExportFormat.NDJSON, ndjson);
+
+        assertEquals(2, ndjson.toString(StandardCharsets.UTF_8).lines().count());
+    }
+
     @Test
     public void testGetFilmById() {
         filmService.create(film());
@@ -81,6 +438,27 @@ public class FilmControllerDaoTest {
         assertEquals(film, filmService.getFilmById(film.getId()));
     }
 
+    @Test
+    public void testCreateFilmWithUnknownGenre() {
+        Film film = film();
+        Genre unknown = genre();
+        unknown.setId(999L);
+        film.setGenres(Set.of(unknown));
+
+        assertThrows(NotFoundException.class, () -> filmService.create(film));
+    }
+
+    @Test
+    public void testCreateFilmWithNullReferenceIds() {
+        Film withoutRatingId = film();
+        withoutRatingId.setRatingMpa(RatingMpa.builder().build());
+        Film withoutGenreId = film();
+        withoutGenreId.setGenres(Set.of(Genre.builder().build()));
+
+        assertThrows(NotFoundException.class, () -> filmService.create(withoutRatingId));
+        assertThrows(NotFoundException.class, () -> filmService.create(withoutGenreId));
+    }
+
     @Test
     public void testGetByIdNotExistFilm() {
         assertThrows(EmptyResultDataAccessException.class, () -> filmService.getFilmById(145L));
@@ -95,6 +473,41 @@ public class FilmControllerDaoTest {
         assertEquals(2, filmList.size());
     }
 
+    @Test
+    public void testGetFilmsReturnsEachFilmOnceWithGenres() {
+        Genre drama = genre();
+        drama.setId(2L);
+        Film film = film();
+        film.setGenres(Set.of(genre(), drama));
+        Film created = filmService.create(film);
+        filmService.addLike(created.getId(), userService.create(user()).getId());
+        filmService.addLike(created.getId(), userService.create(friend()).getId());
+
+        List<Film> filmList = filmService.getFilms().stream().toList();
+
+        assertEquals(1, filmList.size());
+        assertEquals(Set.of(1L, 2L), filmList.getFirst().getGenres().stream().map(Genre::getId)
+                .collect(Collectors.toSet()));
+        assertEquals(2L, filmList.getFirst().getLikeCount());
+    }
+
+    @Test
+    public void testGetFilmsPage() {
+        Film first = filmService.create(film());
+        Film second = filmService.create(film());
+        Film third = filmService.create(film());
+
+        CursorPage<Film> page = filmService.getFilms(null, 2);
+
+        assertEquals(List.of(first, second), page.getItems());
+        assertEquals(second.getId(), page.getNextCursor());
+
+        CursorPage<Film> lastPage = filmService.getFilms(page.getNextCursor(), 2);
+
+        assertEquals(List.of(third), lastPage.getItems());
+        assertNull(lastPage.getNextCursor());
+    }
+
     @Test
     public void testGetEmptyListOfFilms() {
         assertTrue(filmService.getFilms().isEmpty());
@@ -147,6 +560,59 @@ public class FilmControllerDaoTest {
         assertEquals(0, count2);
     }
 
+    @Test
+    public void testGetLikesPage() {
+        Film film = filmService.create(film());
+        User user = userService.create(user());
+        User friend = userService.create(friend());
+
+        filmService.addLike(film.getId(), friend.getId());
+        filmService.addLike(film.getId(), user.getId());
+
+        CursorPage<Like> page = filmService.getLikes(film.getId(), null, 1);
+
+        assertEquals(List.of(user.getId()), page.getItems().stream().map(Like::getUserId).toList());
+        assertEquals(user.getId(), page.getNextCursor());
+
+        CursorPage<Like> lastPage = filmService.getLikes(film.getId(), page.getNextCursor(), 1);
+
+        assertEquals(List.of(friend.getId()), lastPage.getItems().stream().map(Like::getUserId).toList());
+        assertEquals(2L, filmService.getFilmById(film.getId()).getLikeCount());
+    }
+
+    @Test
+    public void testLikeCountFollowsLikes() {
+        Film film = filmService.create(film());
+        User user = userService.create(user());
+        User friend = userService.create(friend());
+
+        filmService.addLike(film.getId(), user.getId());
+        filmService.addLike(film.getId(), friend.getId());
+        filmService.deleteLike(film.getId(), user.getId());
+
+        Integer likeCount = jdbcTemplate.queryForObject(
+                "SELECT like_count FROM films WHERE film_id = ?", Integer.class, film.getId());
+
+        assertEquals(1, likeCount);
+    }
+
+    @Test
+    public void testLeaderboardMatchesDatabaseRanking() {
+        Film first = filmService.create(film());
+        Film second = filmService.create(film());
+        User user = userService.create(user());
+        User friend = userService.create(friend());
+
+        filmService.addLike(second.getId(), user.getId());
+        filmService.addLike(second.getId(), friend.getId());
+        filmService.addLike(first.getId(), user.getId());
+        jdbcTemplate.update("DELETE FROM likes WHERE film_id = ?", second.getId());
+
+        popularityLeaderboard.verify();
+
+        assertEquals(List.of(first.getId(), second.getId()), popularityLeaderboard.top(2));
+    }
+
     private Film film() {
         return Film.builder()
                 .name("name")
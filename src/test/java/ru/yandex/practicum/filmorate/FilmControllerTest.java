@@ -9,7 +9,12 @@ import ru.yandex.practicum.filmorate.controller.FilmController;
 import ru.yandex.practicum.filmorate.exception.ValidationException;
 import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.FilmSearchIndex;
 import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.FilmSimilarityIndex;
+import ru.yandex.practicum.filmorate.service.LikeWriteBehind;
+import ru.yandex.practicum.filmorate.service.PopularityLeaderboard;
+import ru.yandex.practicum.filmorate.service.ReferenceDataCache;
 import ru.yandex.practicum.filmorate.storage.dao.film.FilmDao;
 import ru.yandex.practicum.filmorate.storage.memory.InMemoryFilmDao;
 import ru.yandex.practicum.filmorate.storage.memory.InMemoryUserDao;
@@ -33,8 +38,15 @@ class FilmControllerTest {
         validator = factory.getValidator();
         FilmDao filmDao = new InMemoryFilmDao();
         userDao = new InMemoryUserDao();
-        FilmService filmService = new FilmService(filmDao, userDao);
-        controller = new FilmController(filmService);
+        ReferenceDataCache referenceDataCache = new ReferenceDataCache(filmDao);
+        referenceDataCache.reload();
+        PopularityLeaderboard popularityLeaderboard = new PopularityLeaderboard(filmDao);
+        FilmSimilarityIndex filmSimilarityIndex = new FilmSimilarityIndex(filmDao, 64, 16);
+        LikeWriteBehind likeWriteBehind = new LikeWriteBehind(filmDao, popularityLeaderboard, filmSimilarityIndex,
+                false, 1, 1, 1);
+        FilmService filmService = new FilmService(filmDao, userDao, popularityLeaderboard,
+                referenceDataCache, likeWriteBehind, filmSimilarityIndex, new FilmSearchIndex(filmDao), validator);
+        controller = new FilmController(filmService, null, false);
     }
 
     @Test
@@ -172,12 +184,12 @@ class FilmControllerTest {
         assertDoesNotThrow(() -> controller.create(film1));
         assertDoesNotThrow(() -> controller.create(film2));
         assertDoesNotThrow(() -> controller.create(film3));
-        assertEquals(3, controller.findAll().size());
+        assertEquals(3, controller.findAll(null, null).getBody().size());
     }
 
     @Test
     void testNotFindAllFilms() {
-        Collection<Film> filmCollection = controller.findAll();
+        Collection<Film> filmCollection = controller.findAll(null, null).getBody();
 
         assertTrue(filmCollection.isEmpty());
     }
@@ -187,7 +199,7 @@ class FilmControllerTest {
         Film film = createdValidFilm();
         assertDoesNotThrow(() -> controller.create(film));
 
-        List<Film> allFilms = new ArrayList<>(controller.findAll());
+        List<Film> allFilms = new ArrayList<>(controller.findAll(null, null).getBody());
 
         Film findFilm = assertDoesNotThrow(() -> controller.getFilmById(1L));
 
@@ -219,7 +231,7 @@ class FilmControllerTest {
         assertDoesNotThrow(() -> userDao.create(user1));
         assertDoesNotThrow(() -> userDao.create(user2));
 
-        List<Film> filmList = new ArrayList<>(controller.findAll());
+        List<Film> filmList = new ArrayList<>(controller.findAll(null, null).getBody());
         Film createFilm1 = filmList.get(0);
         Film createFilm2 = filmList.get(1);
 
@@ -231,7 +243,7 @@ class FilmControllerTest {
         assertDoesNotThrow(() -> controller.addLike(createFilm1.getId(), createUser2.getId()));
         assertDoesNotThrow(() -> controller.addLike(createFilm2.getId(), createUser1.getId()));
 
-        Collection<Film> filmCollection = assertDoesNotThrow(() -> controller.getPopular(3));
+        Collection<Film> filmCollection = assertDoesNotThrow(() -> controller.getPopular(3, null, null, null));
         List<Film> popularList = new ArrayList<>(filmCollection);
 
         assertEquals(2, popularList.size());
@@ -248,9 +260,9 @@ class FilmControllerTest {
         assertDoesNotThrow(() -> controller.create(film));
         assertDoesNotThrow(() -> userDao.create(user));
         assertDoesNotThrow(() -> controller.addLike(1L, 1L));
-        assertTrue(controller.getFilmById(1L).getLikes().size() == 1);
+        assertEquals(1L, controller.getFilmById(1L).getLikeCount());
         assertDoesNotThrow(() -> controller.deleteLike(1L, 1L));
-        assertTrue(controller.getFilmById(1L).getLikes().isEmpty());
+        assertEquals(0L, controller.getFilmById(1L).getLikeCount());
     }
 
     @Test
@@ -258,9 +270,9 @@ class FilmControllerTest {
         Film film = createdValidFilm();
 
         assertDoesNotThrow(() -> controller.create(film));
-        assertFalse(controller.findAll().isEmpty());
+        assertFalse(controller.findAll(null, null).getBody().isEmpty());
         assertDoesNotThrow(() -> controller.delete(1L));
-        assertTrue(controller.findAll().isEmpty());
+        assertTrue(controller.findAll(null, null).getBody().isEmpty());
     }
 
     private Film createdValidFilm() {
@@ -0,0 +1,107 @@
+package ru.yandex.practicum.filmorate;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.RatingMpa;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.PopularityLeaderboard;
+import ru.yandex.practicum.filmorate.service.UserService;
+import ru.yandex.practicum.filmorate.storage.dao.film.CachingFilmDao;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.yandex.practicum.filmorate.storage.constants.LikesDbConstants.FIND_COUNT_LIKES;
+import static ru.yandex.practicum.filmorate.storage.constants.LikesDbConstants.IS_LIKE;
+
+@SpringBootTest(properties = {
+        "filmorate.likes.write-behind.enabled=true",
+        "filmorate.likes.write-behind.flush-interval-ms=10"
+})
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class LikeWriteBehindTest {
+    private final FilmService filmService;
+    private final UserService userService;
+    private final PopularityLeaderboard popularityLeaderboard;
+    private final CachingFilmDao cachingFilmDao;
+    private final JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void afterEach() {
+        jdbcTemplate.update("DELETE FROM likes");
+        jdbcTemplate.update("DELETE FROM films");
+        jdbcTemplate.update("DELETE FROM users");
+        popularityLeaderboard.rebuild();
+        cachingFilmDao.invalidateAll();
+    }
+
+    @Test
+    public void testQueuedLikesAreCoalescedAndFlushed() throws InterruptedException {
+        Film film = filmService.create(film());
+        User first = userService.create(user("first"));
+        User second = userService.create(user("second"));
+
+        filmService.addLike(film.getId(), second.getId());
+        filmService.deleteLike(film.getId(), second.getId());
+        filmService.addLike(film.getId(), first.getId());
+        filmService.addLike(film.getId(), first.getId());
+
+        assertTrue(await(() -> isLiked(film.getId(), first.getId())
+                && !isLiked(film.getId(), second.getId())
+                && filmService.getFilmById(film.getId()).getLikeCount() == 1
+                && popularityLeaderboard.top(1).equals(List.of(film.getId()))));
+        assertEquals(1, jdbcTemplate.queryForObject(FIND_COUNT_LIKES, Integer.class, film.getId()));
+    }
+
+    @Test
+    public void testQueuedLikeIsValidatedBeforeEnqueue() {
+        Film film = filmService.create(film());
+
+        assertThrows(NotFoundException.class, () -> filmService.addLike(film.getId(), 999L));
+    }
+
+    private boolean await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    private boolean isLiked(Long filmId, Long userId) {
+        return jdbcTemplate.queryForObject(IS_LIKE, Integer.class, filmId, userId) > 0;
+    }
+
+    private Film film() {
+        return Film.builder()
+                .name("name")
+                .description("description")
+                .releaseDate(LocalDate.of(2000, 1, 1))
+                .duration(100)
+                .ratingMpa(RatingMpa.builder().id(1L).name("G").build())
+                .build();
+    }
+
+    private User user(String login) {
+        return User.builder()
+                .email(login + "@mail.com")
+                .login(login)
+                .name(login)
+                .birthday(LocalDate.of(1990, 1, 1))
+                .build();
+    }
+}
@@ -0,0 +1,93 @@
+package ru.yandex.practicum.filmorate;
+
+import lombok.RequiredArgsConstructor;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class SchemaMigrationTest {
+    private static final String COUNT_INDEXES =
+            "SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES WHERE INDEX_NAME = ?";
+
+    private final Flyway flyway;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testMigrationsAreAppliedOnce() {
+        List<String> applied = Arrays.stream(flyway.info().applied())
+                .map(migration -> migration.getVersion().getVersion())
+                .toList();
+
+        assertEquals(List.of("1", "2", "3"), applied);
+        assertEquals(0, flyway.migrate().migrationsExecuted);
+    }
+
+    @Test
+    public void testSecondaryIndexesExist() {
+        for (String index : List.of("LIKES_USER_IDX", "FRIENDS_FRIEND_IDX", "FILM_GENRES_GENRE_IDX",
+                "FILMS_LIKE_COUNT_IDX")) {
+            assertTrue(jdbcTemplate.queryForObject(COUNT_INDEXES, Integer.class, index) > 0, index);
+        }
+    }
+
+    @Test
+    public void testReferenceDataIsSeeded() {
+        assertEquals(5, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM rating_mpa", Integer.class));
+        assertEquals(6, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM genres", Integer.class));
+    }
+
+    @Test
+    public void testLegacySchemaIsUpgradedInPlace() {
+        EmbeddedDatabase legacy = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .addScript("db/legacy_schema.sql")
+                .build();
+        try {
+            JdbcTemplate legacyTemplate = new JdbcTemplate(legacy);
+            legacyTemplate.update("INSERT INTO rating_mpa (rating_id, rating_name) VALUES (1, 'G')");
+            legacyTemplate.update("INSERT INTO users (user_id, user_name, login, email, birthday) " +
+                    "VALUES (1, 'first', 'first', 'first@mail.ru', '1990-01-01'), " +
+                    "(2, 'second', 'second', 'second@mail.ru', '1990-01-01')");
+            legacyTemplate.update("INSERT INTO films (film_id, film_name, description, duration, release_date, rating_id) " +
+                    "VALUES (1, 'liked', 'description', 100, '2000-01-01', 1), " +
+                    "(2, 'unliked', 'description', 100, '2000-01-01', 1)");
+            legacyTemplate.update("INSERT INTO likes (film_id, user_id) VALUES (1, 1), (1, 2)");
+
+            Flyway legacyFlyway = Flyway.configure()
+                    .dataSource(legacy)
+                    .locations("classpath:db/migration")
+                    .baselineOnMigrate(true)
+                    .baselineVersion("1")
+                    .load();
+            legacyFlyway.migrate();
+
+            List<String> applied = Arrays.stream(legacyFlyway.info().applied())
+                    .map(migration -> migration.getVersion().getVersion())
+                    .toList();
+            assertEquals(List.of("1", "2", "3"), applied);
+            assertEquals(2, legacyTemplate.queryForObject(
+                    "SELECT like_count FROM films WHERE film_id = 1", Integer.class));
+            assertEquals(0, legacyTemplate.queryForObject(
+                    "SELECT like_count FROM films WHERE film_id = 2", Integer.class));
+            assertTrue(legacyTemplate.queryForObject(COUNT_INDEXES, Integer.class, "FILMS_LIKE_COUNT_IDX") > 0);
+            assertTrue(legacyTemplate.queryForObject(COUNT_INDEXES, Integer.class, "LIKES_USER_IDX") > 0);
+        } finally {
+            legacy.shutdown();
+        }
+    }
+}
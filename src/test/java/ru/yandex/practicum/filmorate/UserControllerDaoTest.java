@@ -7,11 +7,23 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.jdbc.core.JdbcTemplate;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.model.CursorPage;
+import ru.yandex.practicum.filmorate.model.ExportFormat;
+import ru.yandex.practicum.filmorate.model.FriendPath;
+import ru.yandex.practicum.filmorate.model.FriendSuggestion;
+import ru.yandex.practicum.filmorate.service.CatalogExportService;
+import ru.yandex.practicum.filmorate.service.FriendGraphIndex;
+import ru.yandex.practicum.filmorate.service.FriendGraphService;
 import ru.yandex.practicum.filmorate.service.UserService;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -20,12 +32,149 @@ import static org.junit.jupiter.api.Assertions.*;
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class UserControllerDaoTest {
     private final UserService userService;
+    private final FriendGraphIndex friendGraphIndex;
+    private final FriendGraphService friendGraphService;
+    private final CatalogExportService catalogExportService;
     private final JdbcTemplate jdbcTemplate;
 
     @AfterEach
     void afterEach() {
         jdbcTemplate.execute("DELETE FROM users");
         jdbcTemplate.execute("DELETE FROM films");
+        friendGraphIndex.rebuild();
+    }
+
+    @Test
+    public void testExportUsersAsCsv() throws IOException {
+        userService.create(user());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        catalogExportService.exportUsers(ExportFormat.CSV, out);
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+
+        assertEquals(2, lines.size());
+        assertEquals("id,email,login,name,birthday,friend_ids", lines.getFirst());
+    }
+
+    @Test
+    public void testGetUsersPage() {
+        User user = userService.create(user());
+        User friend = userService.create(friend());
+        User common = userService.create(friendOfBoth());
+        userService.addFriend(user.getId(), friend.getId());
+        userService.addFriend(user.getId(), common.getId());
+
+        CursorPage<User> first = userService.getUsers(null, 2);
+        CursorPage<User> second = userService.getUsers(first.getNextCursor(), 2);
+
+        assertEquals(List.of(user.getId(), friend.getId()), first.getItems().stream().map(User::getId).toList());
+        assertEquals(Set.of(friend.getId(), common.getId()), first.getItems().getFirst().getFriends());
+        assertEquals(friend.getId(), first.getNextCursor());
+        assertEquals(List.of(common.getId()), second.getItems().stream().map(User::getId).toList());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    public void testFriendPagesCarryFriendIds() {
+        User user = userService.create(user());
+        User friend = userService.create(friend());
+        User common = userService.create(friendOfBoth());
+        userService.addFriend(user.getId(), friend.getId());
+        userService.addFriend(user.getId(), common.getId());
+        userService.addFriend(friend.getId(), common.getId());
+        userService.addFriend(common.getId(), user.getId());
+
+        CursorPage<User> firstPage = userService.getFriends(user.getId(), null, 1);
+        CursorPage<User> secondPage = userService.getFriends(user.getId(), firstPage.getNextCursor(), 1);
+        CursorPage<User> commonPage = userService.getCommonFriends(user.getId(), friend.getId(), null, 10);
+
+        assertEquals(friend.getId(), firstPage.getItems().getFirst().getId());
+        assertEquals(Set.of(common.getId()), firstPage.getItems().getFirst().getFriends());
+        assertEquals(common.getId(), secondPage.getItems().getFirst().getId());
+        assertEquals(Set.of(user.getId()), secondPage.getItems().getFirst().getFriends());
+        assertEquals(List.of(common.getId()), commonPage.getItems().stream().map(User::getId).toList());
+        assertNull(commonPage.getNextCursor());
+    }
+
+    @Test
+    public void testFriendPagesOfUnknownUserAreNotFound() {
+        User user = userService.create(user());
+
+        assertThrows(NotFoundException.class, () -> userService.getFriends(999L, null, 10));
+        assertThrows(NotFoundException.class, () -> userService.getCommonFriends(user.getId(), 999L, null, 10));
+        assertThrows(NotFoundException.class, () -> userService.getCommonFriends(999L, user.getId(), null, 10));
+    }
+
+    @Test
+    public void testFriendGraphIndexSurvivesCompactionAndRebuild() {
+        User user = userService.create(user());
+        User friend = userService.create(friend());
+        User common = userService.create(friendOfBoth());
+        userService.addFriend(user.getId(), friend.getId());
+        userService.addFriend(user.getId(), common.getId());
+        userService.addFriend(friend.getId(), common.getId());
+        friendGraphIndex.compact();
+
+        userService.deleteFriend(user.getId(), friend.getId());
+        userService.addFriend(common.getId(), user.getId());
+        List<Long> friendIds = userService.getFriends(user.getId()).stream().map(User::getId).toList();
+
+        assertEquals(List.of(common.getId()), friendIds);
+        assertEquals(List.of(common.getId()), userService.getCommonFriends(user.getId(), friend.getId()).stream()
+                .map(User::getId).toList());
+
+        userService.delete(common.getId());
+        assertTrue(userService.getFriends(user.getId()).isEmpty());
+        assertTrue(userService.getFriends(friend.getId()).isEmpty());
+
+        friendGraphIndex.compact();
+        userService.addFriend(user.getId(), friend.getId());
+        friendGraphIndex.rebuild();
+
+        assertEquals(List.of(friend.getId()), userService.getFriends(user.getId()).stream().map(User::getId).toList());
+        assertEquals(0, friendGraphIndex.getOverlaySize());
+    }
+
+    @Test
+    public void testSuggestionsAreRankedByMutualFriends() {
+        User user = userService.create(user());
+        User friend = userService.create(friend());
+        User common = userService.create(friendOfBoth());
+        User stranger = userService.create(User.builder()
+                .email("stranger@mail.com")
+                .login("stranger")
+                .name("stranger")
+                .birthday(LocalDate.of(1990, 1, 1))
+                .build());
+        userService.addFriend(user.getId(), friend.getId());
+        userService.addFriend(user.getId(), common.getId());
+        userService.addFriend(friend.getId(), stranger.getId());
+        userService.addFriend(common.getId(), stranger.getId());
+        userService.addFriend(friend.getId(), user.getId());
+
+        List<FriendSuggestion> suggestions = friendGraphService.getSuggestions(user.getId(), 5);
+
+        assertEquals(List.of(stranger.getId()), suggestions.stream().map(s -> s.getUser().getId()).toList());
+        assertEquals(2, suggestions.getFirst().getMutualFriends());
+        assertEquals(List.of(common.getId()), friendGraphService.getSuggestions(friend.getId(), 5)
+                .stream().map(s -> s.getUser().getId()).toList());
+    }
+
+    @Test
+    public void testFindPathBetweenUsers() {
+        User user = userService.create(user());
+        User friend = userService.create(friend());
+        User common = userService.create(friendOfBoth());
+        userService.addFriend(user.getId(), friend.getId());
+        userService.addFriend(friend.getId(), common.getId());
+
+        FriendPath path = friendGraphService.findPath(user.getId(), common.getId(), null);
+
+        assertEquals(FriendPath.Status.FOUND, path.getStatus());
+        assertEquals(List.of(user.getId(), friend.getId(), common.getId()), path.getUserIds());
+        assertEquals(2, path.getDegrees());
+        assertEquals(FriendPath.Status.TOO_FAR, friendGraphService.findPath(user.getId(), common.getId(), 1).getStatus());
+        assertEquals(FriendPath.Status.NOT_FOUND, friendGraphService.findPath(common.getId(), user.getId(), 6).getStatus());
     }
 
     @Test
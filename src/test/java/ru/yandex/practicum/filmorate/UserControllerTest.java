@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import ru.yandex.practicum.filmorate.controller.UserController;
 import ru.yandex.practicum.filmorate.exception.ValidationException;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.FriendGraphIndex;
 import ru.yandex.practicum.filmorate.service.UserService;
 import ru.yandex.practicum.filmorate.storage.memory.InMemoryUserDao;
 import ru.yandex.practicum.filmorate.storage.dao.user.UserDao;
@@ -28,8 +29,10 @@ class UserControllerTest {
         ValidatorFactory factory = buildDefaultValidatorFactory();
         validator = factory.getValidator();
         UserDao userDao = new InMemoryUserDao();
-        UserService userService = new UserService(userDao);
-        controller = new UserController(userService);
+        FriendGraphIndex friendGraphIndex = new FriendGraphIndex(userDao, 1000);
+        friendGraphIndex.rebuild();
+        UserService userService = new UserService(userDao, friendGraphIndex);
+        controller = new UserController(userService, false);
     }
 
     @Test
@@ -178,12 +181,12 @@ class UserControllerTest {
         assertDoesNotThrow(() -> controller.create(user1));
         assertDoesNotThrow(() -> controller.create(user2));
         assertDoesNotThrow(() -> controller.create(user3));
-        assertEquals(3, controller.findAll().size());
+        assertEquals(3, controller.findAll(null, null).getBody().size());
     }
 
     @Test
     void testNotFindAllUsers() {
-        Collection<User> userCollection = controller.findAll();
+        Collection<User> userCollection = controller.findAll(null, null).getBody();
 
         assertTrue(userCollection.isEmpty());
     }
@@ -193,7 +196,7 @@ class UserControllerTest {
         User user = createValidUser();
         assertDoesNotThrow(() -> controller.create(user));
 
-        List<User> allFilms = new ArrayList<>(controller.findAll());
+        List<User> allFilms = new ArrayList<>(controller.findAll(null, null).getBody());
 
         User findUser = assertDoesNotThrow(() -> controller.getUserById(1L));
 
@@ -214,9 +217,9 @@ class UserControllerTest {
         User user = createValidUser();
 
         assertDoesNotThrow(() -> controller.create(user));
-        assertFalse(controller.findAll().isEmpty());
+        assertFalse(controller.findAll(null, null).getBody().isEmpty());
         assertDoesNotThrow(() -> controller.delete(1L));
-        assertTrue(controller.findAll().isEmpty());
+        assertTrue(controller.findAll(null, null).getBody().isEmpty());
     }
 
     @Test
@@ -227,12 +230,12 @@ class UserControllerTest {
         assertDoesNotThrow(() -> controller.create(user1));
         assertDoesNotThrow(() -> controller.create(user2));
 
-        List<User> userList = new ArrayList<>(controller.findAll());
+        List<User> userList = new ArrayList<>(controller.findAll(null, null).getBody());
         User createUser1 = userList.get(0);
         User createUser2 = userList.get(1);
 
         assertDoesNotThrow(() -> controller.addFriend(createUser1.getId(), createUser2.getId()));
-        assertEquals(createUser2, controller.getFriends(createUser1.getId()).iterator().next());
+        assertEquals(createUser2, controller.getFriends(createUser1.getId(), null, null).getBody().iterator().next());
 
         assertDoesNotThrow(() -> controller.deleteFriend(createUser2.getId(), createUser1.getId()));
         assertTrue(createUser1.getFriends().isEmpty());
@@ -249,7 +252,7 @@ class UserControllerTest {
         assertDoesNotThrow(() -> controller.create(user2));
         assertDoesNotThrow(() -> controller.create(user3));
 
-        List<User> userList = new ArrayList<>(controller.findAll());
+        List<User> userList = new ArrayList<>(controller.findAll(null, null).getBody());
         User creteUser1 = userList.get(0);
         User creteUser2 = userList.get(1);
         User createUser3 = userList.get(2);
@@ -257,7 +260,8 @@ class UserControllerTest {
         assertDoesNotThrow(() -> controller.addFriend(creteUser1.getId(), createUser3.getId()));
         assertDoesNotThrow(() -> controller.addFriend(creteUser2.getId(), createUser3.getId()));
 
-        Collection<User> friendsCollection = assertDoesNotThrow(() -> controller.getCommonFriends(creteUser1.getId(), creteUser2.getId()));
+        Collection<User> friendsCollection = assertDoesNotThrow(() ->
+                controller.getCommonFriends(creteUser1.getId(), creteUser2.getId(), null, null).getBody());
         List<User> commonFriends = new ArrayList<>(friendsCollection);
 
         assertEquals(1, commonFriends.size());
@@ -1,11 +1,3 @@
-DROP TABLE IF EXISTS likes;
-DROP TABLE IF EXISTS friends;
-DROP TABLE IF EXISTS film_genres;
-DROP TABLE IF EXISTS films;
-DROP TABLE IF EXISTS users;
-DROP TABLE IF EXISTS genres;
-DROP TABLE IF EXISTS rating_mpa;
-
 CREATE TABLE IF NOT EXISTS rating_mpa (
     rating_id INTEGER NOT NULL GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     rating_name VARCHAR(255) NOT NULL
@@ -50,4 +42,4 @@ CREATE TABLE IF NOT EXISTS friends (
     friend_id INT NOT NULL REFERENCES users(user_id) ON DELETE CASCADE,
     status BOOLEAN NOT NULL,
     PRIMARY KEY (user_id, friend_id)
-);
\ No newline at end of file
+);